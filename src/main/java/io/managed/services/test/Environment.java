@@ -74,6 +74,12 @@ public class Environment {
     private static final String CLI_PLATFORM_ENV = "CLI_PLATFORM";
     private static final String CLI_ARCH_ENV = "CLI_ARCH";
     private static final String CLI_EXCLUDE_VERSIONS_ENV = "CLI_EXCLUDE_VERSIONS";
+    private static final String CLI_CACHE_DIR_ENV = "CLI_CACHE_DIR";
+    private static final String CLI_CACHE_OFFLINE_ENV = "CLI_CACHE_OFFLINE";
+    private static final String CLI_CACHE_LATEST_TTL_SECONDS_ENV = "CLI_CACHE_LATEST_TTL_SECONDS";
+    private static final String DOWNLOAD_CHUNK_SIZE_ENV = "DOWNLOAD_CHUNK_SIZE";
+    private static final String DOWNLOAD_PARALLELISM_ENV = "DOWNLOAD_PARALLELISM";
+    private static final String DOWNLOAD_CHUNK_ATTEMPTS_ENV = "DOWNLOAD_CHUNK_ATTEMPTS";
     private static final String LAUNCH_KEY_ENV = "LAUNCH_KEY";
 
     private static final String SKIP_TEARDOWN_ENV = "SKIP_TEARDOWN";
@@ -82,9 +88,32 @@ public class Environment {
     private static final String DEFAULT_KAFKA_REGION_ENV = "DEFAULT_KAFKA_REGION";
     private static final String KAFKA_INSECURE_TLS_ENV = "KAFKA_INSECURE_TLS";
     private static final String KAFKA_INSTANCE_API_TEMPLATE_ENV = "KAFKA_INSTANCE_API_TEMPLATE";
+    private static final String KAFKA_POOL_SIZE_ENV = "KAFKA_POOL_SIZE";
+    private static final String KAFKA_POOL_WARM_INSTANCES_ENV = "KAFKA_POOL_WARM_INSTANCES";
+
+    private static final String TEST_PARALLELISM_ENV = "TEST_PARALLELISM";
+    private static final String TEST_RESOURCE_QUOTA_ENV = "TEST_RESOURCE_QUOTA";
+
+    private static final String PROCESS_OUTPUT_BUFFER_SIZE_ENV = "PROCESS_OUTPUT_BUFFER_SIZE";
 
     private static final String PROMETHEUS_PUSH_GATEWAY_ENV = "PROMETHEUS_PUSH_GATEWAY";
 
+    private static final String RETRY_BUDGET_RATIO_ENV = "RETRY_BUDGET_RATIO";
+    private static final String RETRY_BUDGET_MIN_ENV = "RETRY_BUDGET_MIN";
+
+    private static final String API_RATE_LIMIT_ENV = "API_RATE_LIMIT";
+    private static final String API_RATE_LIMIT_GROUPS_ENV = "API_RATE_LIMIT_GROUPS";
+
+    private static final String HTTP_MAX_IDLE_CONNECTIONS_ENV = "HTTP_MAX_IDLE_CONNECTIONS";
+    private static final String HTTP_KEEP_ALIVE_SECONDS_ENV = "HTTP_KEEP_ALIVE_SECONDS";
+    private static final String HTTP_MAX_REQUESTS_ENV = "HTTP_MAX_REQUESTS";
+    private static final String HTTP_MAX_REQUESTS_PER_HOST_ENV = "HTTP_MAX_REQUESTS_PER_HOST";
+    private static final String HTTP2_ENABLED_ENV = "HTTP2_ENABLED";
+
+    private static final String ACCESS_TOKEN_REFRESH_MARGIN_SECONDS_ENV = "ACCESS_TOKEN_REFRESH_MARGIN_SECONDS";
+
+    private static final String NAME_LOOKUP_CACHE_TTL_SECONDS_ENV = "NAME_LOOKUP_CACHE_TTL_SECONDS";
+
     private static final String STRATOSPHERE_SCENARIO_1_USER_OFFLINE_TOKEN_ENV  = "STRATOSPHERE_SCENARIO_1_USER_OFFLINE_TOKEN";
     private static final String STRATOSPHERE_SCENARIO_2_USER_OFFLINE_TOKEN_ENV  = "STRATOSPHERE_SCENARIO_2_USER_OFFLINE_TOKEN";
     private static final String STRATOSPHERE_SCENARIO_3_USER_OFFLINE_TOKEN_ENV  = "STRATOSPHERE_SCENARIO_3_USER_OFFLINE_TOKEN";
@@ -166,6 +195,18 @@ public class Environment {
     public static final String CLI_ARCH = getOrDefault(CLI_ARCH_ENV, "amd64");
     public static final String CLI_EXCLUDE_VERSIONS = getOrDefault(CLI_EXCLUDE_VERSIONS_ENV, "alpha");
 
+    // persistent cache of the downloaded CLIs and Kafka scripts shared by all the runs on the same machine, in offline
+    // mode only the cached CLIs are used and the resolution of the latest version never expires
+    public static final Path CLI_CACHE_DIR = getOrDefault(CLI_CACHE_DIR_ENV, Paths::get, Paths.get(System.getProperty("user.home"), ".cache", "mk-e2e-test-suite"));
+    public static final boolean CLI_CACHE_OFFLINE = getOrDefault(CLI_CACHE_OFFLINE_ENV, Boolean::parseBoolean, false);
+    public static final long CLI_CACHE_LATEST_TTL_SECONDS = getOrDefault(CLI_CACHE_LATEST_TTL_SECONDS_ENV, Long::parseLong, 3600L);
+
+    // large release assets are downloaded in HTTP Range chunks fetched in parallel, each chunk is resumed at most
+    // DOWNLOAD_CHUNK_ATTEMPTS times
+    public static final int DOWNLOAD_CHUNK_SIZE = getOrDefault(DOWNLOAD_CHUNK_SIZE_ENV, Integer::parseInt, 8 * 1024 * 1024);
+    public static final int DOWNLOAD_PARALLELISM = getOrDefault(DOWNLOAD_PARALLELISM_ENV, Integer::parseInt, 4);
+    public static final int DOWNLOAD_CHUNK_ATTEMPTS = getOrDefault(DOWNLOAD_CHUNK_ATTEMPTS_ENV, Integer::parseInt, 5);
+
     public static final String LAUNCH_KEY = getOrDefault(LAUNCH_KEY_ENV, "change-me");
     public static final String LAUNCH_SUFFIX = LAUNCH_KEY + "-" + CLOUD_PROVIDER;
 
@@ -181,6 +222,42 @@ public class Environment {
     public static final boolean KAFKA_INSECURE_TLS = getOrDefault(KAFKA_INSECURE_TLS_ENV, Boolean::parseBoolean, false);
     public static final String KAFKA_INSTANCE_API_TEMPLATE = getOrDefault(KAFKA_INSTANCE_API_TEMPLATE_ENV, "https://admin-server-%s");
 
+    // max number of kafka instances owned by the pool for each user, 0 disables the pool
+    public static final int KAFKA_POOL_SIZE = getOrDefault(KAFKA_POOL_SIZE_ENV, Integer::parseInt, 0);
+    public static final int KAFKA_POOL_WARM_INSTANCES = getOrDefault(KAFKA_POOL_WARM_INSTANCES_ENV, Integer::parseInt, 0);
+
+    // number of test classes the ResourceScheduler runs in parallel within the TEST_RESOURCE_QUOTA
+    public static final int TEST_PARALLELISM = getOrDefault(TEST_PARALLELISM_ENV, Integer::parseInt, 1);
+    public static final String TEST_RESOURCE_QUOTA = getOrDefault(TEST_RESOURCE_QUOTA_ENV, "kafka-standard=1,kafka-developer=1,registry=1,service-account=10");
+
+    // bytes of each output stream of a process kept in memory, the older output is spilled to a temporary file
+    public static final int PROCESS_OUTPUT_BUFFER_SIZE = getOrDefault(PROCESS_OUTPUT_BUFFER_SIZE_ENV, Integer::parseInt, 1024 * 1024);
+
+    // host:port or URL of the Prometheus Pushgateway where to push the test metrics at the end of each suite
+    public static final String PROMETHEUS_PUSH_GATEWAY = getOrDefault(PROMETHEUS_PUSH_GATEWAY_ENV, null);
+
+    // Max number of retries for the whole launch expressed as ratio of the performed calls plus a fixed minimum
+    public static final double RETRY_BUDGET_RATIO = getOrDefault(RETRY_BUDGET_RATIO_ENV, Double::parseDouble, 0.2);
+    public static final long RETRY_BUDGET_MIN = getOrDefault(RETRY_BUDGET_MIN_ENV, Long::parseLong, 100L);
+
+    // Client side rate limit in requests per second for each group of mgmt APIs (<= 0 to disable it), it can be
+    // overwritten for single groups with API_RATE_LIMIT_GROUPS (ex: kafka-mgmt=5,security-mgmt=2.5)
+    public static final double API_RATE_LIMIT = getOrDefault(API_RATE_LIMIT_ENV, Double::parseDouble, 20.0);
+    public static final String API_RATE_LIMIT_GROUPS = getOrDefault(API_RATE_LIMIT_GROUPS_ENV, "");
+
+    // Tune the HTTP client shared by all the API clients
+    public static final int HTTP_MAX_IDLE_CONNECTIONS = getOrDefault(HTTP_MAX_IDLE_CONNECTIONS_ENV, Integer::parseInt, 20);
+    public static final long HTTP_KEEP_ALIVE_SECONDS = getOrDefault(HTTP_KEEP_ALIVE_SECONDS_ENV, Long::parseLong, 300L);
+    public static final int HTTP_MAX_REQUESTS = getOrDefault(HTTP_MAX_REQUESTS_ENV, Integer::parseInt, 64);
+    public static final int HTTP_MAX_REQUESTS_PER_HOST = getOrDefault(HTTP_MAX_REQUESTS_PER_HOST_ENV, Integer::parseInt, 10);
+    public static final boolean HTTP2_ENABLED = getOrDefault(HTTP2_ENABLED_ENV, Boolean::parseBoolean, true);
+
+    // Refresh the cached access tokens in background this many seconds before they expire
+    public static final long ACCESS_TOKEN_REFRESH_MARGIN_SECONDS = getOrDefault(ACCESS_TOKEN_REFRESH_MARGIN_SECONDS_ENV, Long::parseLong, 60L);
+
+    // How long the lookups by name of Kafka instances, registries and service accounts are cached (0 to disable it)
+    public static final long NAME_LOOKUP_CACHE_TTL_SECONDS = getOrDefault(NAME_LOOKUP_CACHE_TTL_SECONDS_ENV, Long::parseLong, 5L);
+
     public static final String STRATOSPHERE_SCENARIO_1_USER_OFFLINE_TOKEN = getOrDefault(STRATOSPHERE_SCENARIO_1_USER_OFFLINE_TOKEN_ENV, null);
     public static final String STRATOSPHERE_SCENARIO_2_USER_OFFLINE_TOKEN = getOrDefault(STRATOSPHERE_SCENARIO_2_USER_OFFLINE_TOKEN_ENV, null);
     public static final String STRATOSPHERE_SCENARIO_3_USER_OFFLINE_TOKEN = getOrDefault(STRATOSPHERE_SCENARIO_3_USER_OFFLINE_TOKEN_ENV, null);
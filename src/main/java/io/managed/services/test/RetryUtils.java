@@ -1,6 +1,10 @@
 package io.managed.services.test;
 
+import io.managed.services.test.retry.CircuitBreaker;
+import io.managed.services.test.retry.RetryBudget;
+import io.managed.services.test.retry.RetryPolicy;
 import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
@@ -8,6 +12,7 @@ import lombok.SneakyThrows;
 import lombok.extern.log4j.Log4j2;
 
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -20,6 +25,18 @@ public class RetryUtils {
         .labelNames("launch", "class", "method", "exception")
         .help("Test retry errors counter.").register();
 
+    private static final Histogram RETRIES = Histogram.build()
+        .name("test_retries")
+        .labelNames("launch", "class", "method")
+        .buckets(0, 1, 2, 3, 5, 8, 13)
+        .help("Number of retries performed by a call before succeeding or giving up.").register();
+
+    private static final Histogram LATENCY = Histogram.build()
+        .name("test_retry_call_duration_seconds")
+        .labelNames("launch", "class", "method", "outcome")
+        .buckets(0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300)
+        .help("Duration of the retried calls including the time spent waiting between the attempts.").register();
+
     public static <T> Future<T> retry(
         Vertx x,
         int backtrace,
@@ -52,37 +69,61 @@ public class RetryUtils {
         Function<Throwable, Boolean> condition,
         int attempts) {
 
-        return retry(x, caller(backtrace), call, condition, attempts, Duration.ofSeconds(1));
+        return retry(x, backtrace, call, RetryPolicy.DEFAULT.withCondition(condition).withAttempts(attempts));
+    }
+
+    /**
+     * Retry the call supplier if the supplier returns a failed future and the policy allows it.
+     *
+     * @param x         Vertx
+     * @param backtrace See {@link #retry(Vertx, int, Supplier, Function, int)}
+     * @param call      The supplier to call the first time and retry in case of failure
+     * @param policy    The RetryPolicy that decides if and when to retry the call
+     * @param <T>       T
+     * @return Future
+     */
+    public static <T> Future<T> retry(
+        Vertx x,
+        int backtrace,
+        Supplier<Future<T>> call,
+        RetryPolicy policy) {
+
+        var caller = caller(backtrace);
+        var breaker = CircuitBreaker.of(endpoint(caller));
+        var attempt = new AtomicInteger(0);
+        var start = System.nanoTime();
+        RetryBudget.onCall();
+
+        return retry(x, caller, breaker, call, policy, attempt)
+            .onComplete(r -> observe(caller, attempt.get(), start, r.succeeded()));
     }
 
     private static <T> Future<T> retry(
         Vertx x,
         StackWalker.StackFrame caller,
+        CircuitBreaker breaker,
         Supplier<Future<T>> call,
-        Function<Throwable, Boolean> condition,
-        int attempts,
-        Duration interval) {
+        RetryPolicy policy,
+        AtomicInteger attempt) {
 
-        Function<Throwable, Future<T>> retry = t -> {
-            logSkip(caller, t);
+        return call.get()
+            .onSuccess(r -> breaker.onSuccess())
+            .recover(t -> {
+                if (!shouldRetry(caller, breaker, policy, attempt.get(), t)) {
+                    return Future.failedFuture(t);
+                }
 
-            // retry the API call
-            return sleep(x, interval)
-                .compose(r -> retry(x, caller, call, condition, attempts - 1, interval.plusSeconds(3)));
-        };
+                logSkip(caller, t);
 
-        return call.get().recover(t -> {
-            if (attempts > 0 && condition.apply(t)) {
-                // retry the call if there are available attempts and if the condition returns true
-                return retry.apply(t);
-            }
-            return Future.failedFuture(t);
-        });
+                // retry the API call
+                return sleep(x, policy.backoff(attempt.getAndIncrement(), t))
+                    .compose(r -> retry(x, caller, breaker, call, policy, attempt));
+            });
     }
 
     public static Future<Void> sleep(Vertx x, Duration d) {
         Promise<Void> p = Promise.promise();
-        x.setTimer(d.toMillis(), l -> p.complete());
+        x.setTimer(Math.max(1, d.toMillis()), l -> p.complete());
         return p.future();
     }
 
@@ -116,10 +157,27 @@ public class RetryUtils {
         int attempts)
         throws E {
 
-        return retry(backtrace, null, call, condition, attempts, Duration.ofSeconds(1));
+        return retry(backtrace, null, call, RetryPolicy.DEFAULT.withCondition(condition).withAttempts(attempts));
+    }
+
+    /**
+     * Retry the call supplier if the supplier throws an exception and the policy allows it.
+     *
+     * @param backtrace See {@link #retry(int, ThrowingSupplier, Function, int)}
+     * @param call      The supplier to call the first time and retry in case of failure
+     * @param policy    The RetryPolicy that decides if and when to retry the call
+     * @param <T>       T
+     * @return T
+     */
+    public static <T, E extends Throwable> T retry(
+        int backtrace,
+        ThrowingSupplier<T, E> call,
+        RetryPolicy policy)
+        throws E {
+
+        return retry(backtrace, null, call, policy);
     }
 
-    @SneakyThrows
     public static <T, E extends Throwable> T retry(
         int backtrace,
         StackWalker.StackFrame caller,
@@ -129,25 +187,83 @@ public class RetryUtils {
         Duration interval)
         throws E {
 
-        try {
-            return call.get();
+        var policy = RetryPolicy.DEFAULT.toBuilder()
+            .condition(condition)
+            .attempts(attempts)
+            .minInterval(interval)
+            .initialInterval(interval)
+            .build();
+        return retry(backtrace, caller, call, policy);
+    }
+
+    @SneakyThrows
+    private static <T, E extends Throwable> T retry(
+        int backtrace,
+        StackWalker.StackFrame caller,
+        ThrowingSupplier<T, E> call,
+        RetryPolicy policy)
+        throws E {
+
+        if (caller == null) caller = caller(backtrace);
+        var breaker = CircuitBreaker.of(endpoint(caller));
+        var start = System.nanoTime();
+        RetryBudget.onCall();
 
-        } catch (Throwable t) {
+        var attempt = 0;
+        while (true) {
+            try {
+                var result = call.get();
+                breaker.onSuccess();
+                observe(caller, attempt, start, true);
+                return result;
 
-            // retry the call if there are available attempts and if the condition returns true
-            if (attempts > 0 && condition.apply(t)) {
+            } catch (Throwable t) {
+
+                // if the attempts are finished or the policy doesn't allow it throw the original exception
+                if (!shouldRetry(caller, breaker, policy, attempt, t)) {
+                    observe(caller, attempt, start, false);
+                    throw t;
+                }
 
-                if (caller == null) caller = caller(backtrace);
                 logSkip(caller, t);
 
                 // retry the API call
-                Thread.sleep(interval.toMillis());
-                return retry(backtrace, caller, call, condition, attempts - 1, interval.plusSeconds(3));
+                Thread.sleep(policy.backoff(attempt, t).toMillis());
+                attempt++;
             }
+        }
+    }
+
+    private static boolean shouldRetry(
+        StackWalker.StackFrame caller,
+        CircuitBreaker breaker,
+        RetryPolicy policy,
+        int attempt,
+        Throwable t) {
+
+        if (!policy.isRetryable(t)) {
+            return false;
+        }
 
-            // if the attempts are finished or the condition doesn't match throw the original exception
-            throw t;
+        if (attempt >= policy.getAttempts()) {
+            return false;
         }
+
+        // count only the failures that would be retried, the last failure of a call is already reported to the caller
+        if (policy.isCircuitBreaker()) {
+            breaker.onFailure();
+        }
+        if (policy.isCircuitBreaker() && breaker.isOpen()) {
+            log.warn("{}.{}(): circuit breaker is open, skip retry", caller.getClassName(), caller.getMethodName());
+            return false;
+        }
+        return RetryBudget.tryAcquire();
+    }
+
+    private static void observe(StackWalker.StackFrame caller, int retries, long start, boolean succeeded) {
+        RETRIES.labels(Environment.LAUNCH_KEY, caller.getClassName(), caller.getMethodName()).observe(retries);
+        LATENCY.labels(Environment.LAUNCH_KEY, caller.getClassName(), caller.getMethodName(), succeeded ? "success" : "failure")
+            .observe((System.nanoTime() - start) / 1e9);
     }
 
     private static void logSkip(StackWalker.StackFrame caller, Throwable t) {
@@ -155,6 +271,10 @@ public class RetryUtils {
         ERRORS.labels(Environment.LAUNCH_KEY, caller.getClassName(), caller.getMethodName(), t.getClass().getName()).inc();
     }
 
+    private static String endpoint(StackWalker.StackFrame caller) {
+        return caller.getClassName() + "." + caller.getMethodName();
+    }
+
     private static StackWalker.StackFrame caller(int backtrace) {
 
         var walker = StackWalker.getInstance();
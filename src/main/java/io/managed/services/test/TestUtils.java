@@ -7,6 +7,7 @@ import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.ext.web.codec.impl.BodyCodecImpl;
+import lombok.SneakyThrows;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.message.MessageFactory2;
@@ -27,9 +28,13 @@ import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
@@ -207,6 +212,63 @@ public class TestUtils {
     }
 
 
+    /**
+     * Apply the action to all items using at most parallelism threads and wait for all of them to complete.
+     * If any action fails the first failure is thrown, with the following ones as suppressed, once all the
+     * other actions are completed.
+     *
+     * @param items       The items to pass to the action
+     * @param parallelism The max number of concurrent actions
+     * @param action      The blocking action
+     * @return the results in the same order of the items
+     */
+    @SneakyThrows
+    public static <A, B, T extends Throwable> List<B> mapInParallel(
+        List<A> items, int parallelism, ThrowingFunction<A, B, T> action) throws T {
+
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        var executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, items.size())));
+        try {
+            var futures = new ArrayList<java.util.concurrent.Future<B>>();
+            for (var item : items) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        return action.call(item);
+                    } catch (Throwable t) {
+                        throw new ExecutionException(t);
+                    }
+                }));
+            }
+
+            var results = new ArrayList<B>();
+            Throwable failure = null;
+            for (var future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    // unwrap the ExecutionException added by the executor and the one added above
+                    var cause = e.getCause() instanceof ExecutionException ? e.getCause().getCause() : e.getCause();
+                    if (failure == null) {
+                        failure = cause;
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                    results.add(null);
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Return a Future that will be completed after the passed duration.
      *
@@ -1,14 +1,13 @@
 package io.managed.services.test.cli;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.microsoft.kiota.serialization.JsonParseNodeFactory;
 import com.microsoft.kiota.serialization.ParseNode;
+import io.managed.services.test.Environment;
 import lombok.extern.log4j.Log4j2;
-import org.apache.commons.io.input.TeeInputStream;
-import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.openapitools.jackson.nullable.JsonNullableModule;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
@@ -19,28 +18,46 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static lombok.Lombok.sneakyThrow;
 
 @Log4j2
 public class AsyncProcess {
 
+    // the mapper is thread safe once configured and the readers are immutable, therefore all processes share them
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .registerModule(new JavaTimeModule())
+        .registerModule(new JsonNullableModule());
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    private static final JsonParseNodeFactory PARSE_NODE_FACTORY = new JsonParseNodeFactory();
+
     private final Process process;
     private final ProcessHandle.Info info;
 
     /**
      * Joint output from stdout and stderr similar to what will be printed on a terminal
      */
-    private final ByteArrayOutputStream joint = new ByteArrayOutputStream();
+    private final OutputCapture joint = new OutputCapture("output", Environment.PROCESS_OUTPUT_BUFFER_SIZE);
+
+    private final OutputCapture stdout = new OutputCapture("stdout", Environment.PROCESS_OUTPUT_BUFFER_SIZE);
+    private final OutputCapture stderr = new OutputCapture("stderr", Environment.PROCESS_OUTPUT_BUFFER_SIZE);
 
-    private final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
-    private final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+    // time to wait for the pumps to drain the remaining output after the process exited
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final List<Consumer<OutputLine>> listeners = new CopyOnWriteArrayList<>();
 
     private final InputStream liveStdout;
-    private final InputStream liveStderr;
     private final OutputStream liveStdin;
 
     private final Exception cause;
@@ -50,11 +67,24 @@ public class AsyncProcess {
     private boolean destroyed;
 
     public AsyncProcess(Process process) {
+        this(process, List.of());
+    }
+
+    /**
+     * @param process   The started process
+     * @param listeners The listeners that receive each line written to stdout or stderr, unlike the listeners
+     *                  registered later with {@link #onLine(Consumer)} they never miss the first lines
+     */
+    public AsyncProcess(Process process, List<Consumer<OutputLine>> listeners) {
         this.info = process.info();
         this.process = process;
+        this.listeners.addAll(listeners);
+
+        new Pump(OutputLine.STDOUT, process.getInputStream(), listeners, stdout, joint).start();
+        new Pump(OutputLine.STDERR, process.getErrorStream(), listeners, stderr, joint).start();
 
-        this.liveStdout = new TeeInputStream(new TeeInputStream(process.getInputStream(), joint), stdout);
-        this.liveStderr = new TeeInputStream(new TeeInputStream(process.getErrorStream(), joint), stderr);
+        // all the readers returned by stdout() share the same position
+        this.liveStdout = stdout.follow();
 
         this.liveStdin = process.getOutputStream();
 
@@ -156,37 +186,87 @@ public class AsyncProcess {
         return joint.toString(StandardCharsets.UTF_8);
     }
 
+    /**
+     * @return a reader of the output written to stdout till now, unlike {@link #stdoutAsString()} the output
+     *         is streamed from the capture without loading it all in memory
+     */
+    public BufferedReader stdoutReader() {
+        return stdout.openReader();
+    }
+
+    public BufferedReader stderrReader() {
+        return stderr.openReader();
+    }
+
+    public BufferedReader outputReader() {
+        return joint.openReader();
+    }
+
+    /**
+     * Delete the output spilled to disk, the output is not available anymore after this call
+     */
+    public void releaseOutput() {
+        joint.close();
+        stdout.close();
+        stderr.close();
+    }
+
+    static ObjectReader jsonReader(Class<?> c) {
+        return READERS.computeIfAbsent(c, MAPPER::readerFor);
+    }
+
+    /**
+     * Parse the stdout as a single JSON value streaming it from the capture
+     */
     public <T> T asJson(Class<T> c) {
-        try {
-            return new ObjectMapper()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-                .registerModule(new JavaTimeModule())
-                .registerModule(new JsonNullableModule())
-                .readValue(stdoutAsString(), c);
-        } catch (JsonProcessingException e) {
+        try (var stream = stdout.openStream()) {
+            return jsonReader(c).readValue(stream);
+        } catch (IOException e) {
+            throw sneakyThrow(e);
+        }
+    }
+
+    /**
+     * Parse the stdout as a sequence of JSON values separated by white spaces (e.g. the records printed by the
+     * consume command) in a single pass
+     */
+    public <T> List<T> asJsonValues(Class<T> c) {
+        try (var stream = stdout.openStream()) {
+            return jsonReader(c).<T>readValues(stream).readAll();
+        } catch (IOException e) {
             throw sneakyThrow(e);
         }
     }
 
     public ParseNode parseNodeFromProcessOutput() {
-        InputStream targetStream = new java.io.ByteArrayInputStream(this.stdoutAsString().getBytes());
-        log.debug("process stdout: ");
-        log.debug(this.stdoutAsString());
+        if (log.isDebugEnabled()) {
+            log.debug("process stdout: ");
+            log.debug(stdoutAsString());
+        }
 
-        var factory = new JsonParseNodeFactory();
-        return factory.getParseNode("application/json", targetStream);
+        return PARSE_NODE_FACTORY.getParseNode("application/json", stdout.openStream());
     }
 
-    public void readAll() {
-        readAll(liveStdout);
-        readAll(liveStderr);
+    /**
+     * Register a listener that receives each line written to stdout or stderr from now on, the lines already
+     * read by the pumps are not emitted to it
+     */
+    public AsyncProcess onLine(Consumer<OutputLine> listener) {
+        listeners.add(listener);
+        return this;
     }
 
-    private static void readAll(InputStream stream) {
+    /**
+     * Wait for the pumps to drain all the output written by the process before it exited
+     */
+    public void readAll() {
         try {
-            stream.readNBytes(stream.available());
-        } catch (IOException e) {
-            log.error("failed to read all remaining bytes form the input stream:", e);
+            if (!stdout.awaitFinished(DRAIN_TIMEOUT) || !stderr.awaitFinished(DRAIN_TIMEOUT)) {
+                log.warn("the output of the process is still open after {}s", DRAIN_TIMEOUT.toSeconds());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("interrupted while reading the remaining output: ", e);
         }
     }
 
@@ -196,9 +276,7 @@ public class AsyncProcess {
             return;
         }
 
-        // save stdin and stdout before destroy the process
-        readAll();
-
+        // the output written till now is already captured by the pumps
         this.destroyed = true;
 
         // destroy the process
@@ -1,9 +1,5 @@
 package io.managed.services.test.cli;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.openshift.cloud.api.kas.auth.models.AclBindingListPage;
 import com.openshift.cloud.api.kas.auth.models.AclOperation;
 import com.openshift.cloud.api.kas.auth.models.AclPermissionType;
@@ -19,22 +15,19 @@ import com.openshift.cloud.api.srs.models.RegistryList;
 import io.managed.services.test.Environment;
 import io.managed.services.test.RetryUtils;
 import io.managed.services.test.ThrowingSupplier;
+import io.managed.services.test.retry.RetryPolicy;
 import lombok.SneakyThrows;
 import com.openshift.cloud.api.kas.auth.models.Record;
 import lombok.extern.log4j.Log4j2;
-import org.openapitools.jackson.nullable.JsonNullableModule;
 import org.testng.Assert;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
 
 import static java.time.Duration.ofMinutes;
 import static lombok.Lombok.sneakyThrow;
@@ -47,28 +40,56 @@ public class CLI {
 
     private static final String CLUSTER_CAPACITY_EXHAUSTED_CODE = "KAFKAS-MGMT-24";
 
+    // the cluster capacity can stay exhausted for a while, so don't let the circuit breaker stop the retries
+    private static final RetryPolicy KAFKA_CREATION_RETRY_POLICY = RetryPolicy.builder()
+        .condition(CLI::retryConditionKafkaCreation)
+        .attempts(12)
+        .initialInterval(Duration.ofSeconds(10))
+        .maxInterval(Duration.ofMinutes(1))
+        .circuitBreaker(false)
+        .build();
+
     private static final Locale LOCALE_EN = Locale.ENGLISH;
 
     private final String workdir;
     private final String cmd;
+    private final CLISession session;
 
-    public CLI(Path binary) {
+    /**
+     * Create a CLI with its own session in the workdir of the binary
+     */
+    public CLI(Path binary) throws IOException {
+        this(binary, CLISession.in(binary.getFileName().toString(), binary.getParent().resolve("session")));
+    }
+
+    /**
+     * Create a CLI that runs all commands in the given session, multiple CLIs can share the same binary as long
+     * as each one has its own session
+     */
+    public CLI(Path binary, CLISession session) {
         this.workdir = binary.getParent().toString();
-        this.cmd = String.format("./%s", binary.getFileName().toString());
+        this.cmd = binary.toAbsolutePath().toString();
+        this.session = session;
     }
 
     public String getWorkdir() {
         return this.workdir;
     }
 
+    public CLISession getSession() {
+        return this.session;
+    }
+
     private ProcessBuilder builder(List<String> command) {
         var cmd = new ArrayList<String>();
         cmd.add(this.cmd);
         cmd.add("-v");
         cmd.addAll(command);
 
-        return new ProcessBuilder(cmd)
-            .directory(new File(workdir));
+        var builder = new ProcessBuilder(cmd)
+            .directory(session.getHome().toFile());
+        builder.environment().putAll(session.getEnvironment());
+        return builder;
     }
 
     private AsyncProcess exec(String... command) throws CliGenericException {
@@ -336,7 +357,7 @@ public class CLI {
         retry(() -> exec("service-registry", "delete", "--id", name, "-y"));
     }
 
-    public List<Record> consumeRecords(String topicName, String instanceId, int partition, int offset) throws CliGenericException, JsonProcessingException {
+    public List<Record> consumeRecords(String topicName, String instanceId, int partition, int offset) throws CliGenericException {
         List<String> cmd = List.of("kafka", "topic", "consume",
             "--instance-id", instanceId,
             "--name", topicName,
@@ -348,7 +369,7 @@ public class CLI {
         return consumeRecords(cmd);
     }
 
-    public List<Record> consumeRecords(String topicName, String instanceId, int partition) throws CliGenericException, JsonProcessingException {
+    public List<Record> consumeRecords(String topicName, String instanceId, int partition) throws CliGenericException {
         List<String> cmd = List.of("kafka", "topic", "consume",
             "--instance-id", instanceId,
             "--name", topicName,
@@ -399,32 +420,10 @@ public class CLI {
         return producedRecord;
     }
 
-    private List<Record> consumeRecords(List<String> cmd) throws CliGenericException, JsonProcessingException {
-
-        // consume returns inline Jsons separated by newline, therefore string must be firstly split than read as multiple jsons
-        var output = retry(() -> exec(cmd)).stdoutAsString();
+    private List<Record> consumeRecords(List<String> cmd) throws CliGenericException {
 
-        if (output.isEmpty()) {
-            return new ArrayList<Record>();
-        }
-
-        // specific separated JSON objects \n}\n which is separator of multiple inline jsons
-        String[] lines = output.split("\n\\}\n");
-        // append back '}' (i.e. curly bracket) so JSON objects will not miss this end symbol
-        List<String> messagesWithFixedFormat = Arrays.stream(lines).map(in -> in + "}").collect(Collectors.toList());
-
-        var objectMapper = new ObjectMapper()
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-            .registerModule(new JavaTimeModule())
-            .registerModule(new JsonNullableModule());
-        List<Record> records = new ArrayList<>();
-
-        // each object is read as separated Record
-        for (String line : messagesWithFixedFormat) {
-            Record record = objectMapper.readValue(line, Record.class);
-            records.add(record);
-        }
-        return records;
+        // consume returns pretty printed JSONs separated by newline that are read one after the other
+        return retry(() -> exec(cmd)).asJsonValues(Record.class);
     }
 
     private <T, E extends Throwable> T retry(ThrowingSupplier<T, E> call) throws E {
@@ -432,8 +431,7 @@ public class CLI {
     }
 
     private <T, E extends Throwable> T retryKafkaCreation(ThrowingSupplier<T, E> call) throws E {
-        return RetryUtils.retry(
-            1, null, call, CLI::retryConditionKafkaCreation, 12, Duration.ofSeconds(10));
+        return RetryUtils.retry(1, call, KAFKA_CREATION_RETRY_POLICY);
     }
 
     private static boolean retryConditionKafkaCreation(Throwable t) {
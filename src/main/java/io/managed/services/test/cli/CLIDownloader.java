@@ -9,10 +9,14 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
 
 import static io.managed.services.test.cli.CLIUtils.extractCLI;
 
@@ -24,6 +28,7 @@ public class CLIDownloader {
 
     private static final String DOWNLOAD_ASSET_TEMPLATE = "^%s_\\S+_%s_%s.%s$"; // rhoas_{version}_linux_amd64.tar.gz
     private static final String ARCHIVE_ENTRY_TEMPLATE = "^%s_\\S+_%s_%s/%s$"; // rhoas_{version}_linux_amd64/rhoas
+    private static final String CHECKSUMS_ASSET_SUFFIX = "checksums.txt"; // rhoas_{version}_checksums.txt
 
     private final GitHub github;
     private final String organization;
@@ -75,30 +80,159 @@ public class CLIDownloader {
         LOGGER.info("download CLI in temporary directory");
         var workspace = Files.createTempDirectory(TMPDIR);
 
+        var cache = new DownloadCache(Environment.CLI_CACHE_DIR);
+        var alias = String.format("%s/%s/%s/%s/%s-%s", NAME, organization, repository, version, platform, arch);
+
+        // the latest release changes over time therefore its resolution expires, while a tag always points to the
+        // same release, in offline mode the last resolution is used anyway
+        Duration maxAge = null;
+        if (!Environment.CLI_CACHE_OFFLINE && "latest".equals(version.toLowerCase(Locale.ROOT))) {
+            maxAge = Duration.ofSeconds(Environment.CLI_CACHE_LATEST_TTL_SECONDS);
+        }
+
+        var cachedKey = cache.resolve(alias, maxAge);
+        var cached = cachedKey.isPresent() ? cache.get(cachedKey.get()) : Optional.<Path>empty();
+        if (cached.isPresent()) {
+            LOGGER.info("found CLI {} in the cache: {}", version, cached.get());
+            return linkCLIBinaryInWorkspace(cached.get(), workspace);
+        }
+
+        if (Environment.CLI_CACHE_OFFLINE) {
+            throw new IOException(String.format("CLI %s not found in the cache %s and CLI_CACHE_OFFLINE is enabled",
+                version, Environment.CLI_CACHE_DIR));
+        }
+
         LOGGER.info("download CLI in workspace: {}", workspace);
         var release = github.getReleaseByTagName(organization, repository, version, excludeVersions);
 
         var asset = getDownloadAssetFromRelease(release);
+        var key = String.format("%s/%s/%s/%s", NAME, release.getTagName(), asset.getId(), NAME);
 
-        LOGGER.info("download asset '{}'", asset.toString());
-        var archive = github.downloadAsset(organization, repository, asset.getId());
+        cached = cache.get(key);
+        if (cached.isEmpty()) {
+            cached = Optional.of(downloadCLIInCache(cache, key, release, asset));
+        }
+        cache.alias(alias, key);
 
-        var binary = extractCLIBinaryInWorkspace(archive, workspace);
+        return linkCLIBinaryInWorkspace(cached.get(), workspace);
+    }
+
+    private Path downloadCLIInCache(DownloadCache cache, String key, Release release, Asset asset) throws IOException {
+        var checksum = getAssetChecksum(release, asset);
+
+        LOGGER.info("download asset '{}'", asset.toString());
+        var binary = cache.newTempFile();
+        Files.delete(binary);
+        try {
+            if ("zip".equals(archiveExt)) {
+                extractCLIFromZip(cache, asset, checksum, binary);
+            } else {
+                extractCLIFromTarGz(asset, checksum, binary);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(binary);
+            throw e;
+        }
 
         makeCLIBinaryExecutable(binary);
+        return cache.put(key, binary);
+    }
 
-        return binary;
+    /**
+     * Extract the binary while the archive is downloaded and stop the download as soon as the binary is written,
+     * unless the rest of the archive is needed to verify the checksum
+     */
+    private void extractCLIFromTarGz(Asset asset, Optional<String> checksum, Path binary) throws IOException {
+        try (var archive = DownloadCache.digestInputStream(github.downloadAsset(organization, repository, asset.getId()))) {
+            LOGGER.info("extract {} from stream archive to: {}", entry(), binary);
+            extractCLI(archive, entry(), binary);
+
+            if (checksum.isPresent()) {
+                // consume the rest of the archive to compute the digest of the whole asset
+                archive.transferTo(OutputStream.nullOutputStream());
+                verifyChecksum(asset, checksum.get(), DownloadCache.hex(archive.getMessageDigest()));
+            }
+        }
     }
 
-    private Path extractCLIBinaryInWorkspace(InputStream archive, Path workspace) throws IOException {
-        var entry = String.format(ARCHIVE_ENTRY_TEMPLATE, NAME, platform, arch, NAME);
-        var binary = workspace.resolve(NAME);
+    /**
+     * The central directory of a zip is at its end, therefore the archive is downloaded in full and then the binary
+     * is read directly from its offset
+     */
+    private void extractCLIFromZip(DownloadCache cache, Asset asset, Optional<String> checksum, Path binary) throws IOException {
+        var zip = cache.newTempFile();
+        try {
+            try (var archive = DownloadCache.digestInputStream(github.downloadAsset(organization, repository, asset.getId()));
+                 var out = Files.newOutputStream(zip)) {
+                archive.transferTo(out);
+                if (checksum.isPresent()) {
+                    verifyChecksum(asset, checksum.get(), DownloadCache.hex(archive.getMessageDigest()));
+                }
+            }
+
+            LOGGER.info("extract {} from zip archive to: {}", entry(), binary);
+            extractCLI(zip, entry(), binary);
+        } finally {
+            Files.deleteIfExists(zip);
+        }
+    }
+
+    private static void verifyChecksum(Asset asset, String expected, String actual) throws IOException {
+        if (!expected.equals(actual)) {
+            throw new IOException(String.format("the checksum of the asset %s is %s but %s was expected",
+                asset.getName(), actual, expected));
+        }
+    }
+
+    /**
+     * @return the SHA-256 checksum of the asset from the checksums file of the release if it exists
+     */
+    private Optional<String> getAssetChecksum(Release release, Asset asset) throws IOException {
+        var checksums = release.getAssets().stream()
+            .filter(a -> a.getName().endsWith(CHECKSUMS_ASSET_SUFFIX))
+            .findFirst();
+        if (checksums.isEmpty()) {
+            LOGGER.warn("checksums not found in release {}, the asset will not be verified", release.getTagName());
+            return Optional.empty();
+        }
+
+        LOGGER.info("download checksums '{}'", checksums.get().getName());
+        try (var in = github.downloadAsset(organization, repository, checksums.get().getId())) {
+            // each line has the format: {sha256}  {file name}
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()
+                .map(l -> l.strip().split("\\s+"))
+                .filter(l -> l.length == 2 && l[1].equals(asset.getName()))
+                .map(l -> l[0].toLowerCase(Locale.ROOT))
+                .findFirst();
+        }
+    }
 
-        LOGGER.info("extract {} from stream archive to: {}", entry, binary);
-        extractCLI(archive, entry, binary);
+    /**
+     * Link the cached binary in the workspace so that each run has its own directory while sharing the binary
+     */
+    private Path linkCLIBinaryInWorkspace(Path cached, Path workspace) throws IOException {
+        var binary = workspace.resolve(binaryName());
+        try {
+            Files.createLink(binary, cached);
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.debug("failed to link {}, copy it: {}", cached, e.getMessage());
+            Files.copy(cached, binary);
+        }
+        makeCLIBinaryExecutable(binary);
         return binary;
     }
 
+    private String entry() {
+        return String.format(ARCHIVE_ENTRY_TEMPLATE, NAME, platform, arch, binaryName());
+    }
+
+    private String binaryName() {
+        if (Platform.WINDOWS.toString().equals(platform)) {
+            return NAME + ".exe";
+        }
+        return NAME;
+    }
+
     private void makeCLIBinaryExecutable(Path binary) throws IOException {
         if (Platform.WINDOWS.toString().equals(platform)) {
             // skip windows
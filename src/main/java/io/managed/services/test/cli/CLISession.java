@@ -0,0 +1,78 @@
+package io.managed.services.test.cli;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * The configuration, login state and cache of a CLI user.
+ * <p>
+ * Each session points the CLI to its own home, config and cache directories through the environment of the
+ * processes, so that multiple {@link CLI} instances can log in with different users and run commands at the
+ * same time without overwriting each other configuration or current context.
+ */
+@Log4j2
+@Getter
+public class CLISession {
+
+    private final String name;
+    private final Path home;
+    private final Path configDir;
+    private final Path cacheDir;
+
+    private CLISession(String name, Path home) {
+        this.name = name;
+        this.home = home;
+        this.configDir = home.resolve(".config");
+        this.cacheDir = home.resolve(".cache");
+    }
+
+    /**
+     * Create a new session in the given directory
+     */
+    public static CLISession in(String name, Path home) throws IOException {
+        var session = new CLISession(name, home);
+        Files.createDirectories(session.configDir.resolve("rhoas"));
+        Files.createDirectories(session.cacheDir);
+        log.info("create CLI session '{}' in {}", name, home);
+        return session;
+    }
+
+    /**
+     * Create a new session in a temporary directory
+     */
+    public static CLISession create(String name) throws IOException {
+        return in(name, Files.createTempDirectory("cli-session-" + name + "-"));
+    }
+
+    /**
+     * @return the environment variables that isolate the CLI processes in this session
+     */
+    public Map<String, String> getEnvironment() {
+        return Map.of(
+            "HOME", home.toString(),
+            "XDG_CONFIG_HOME", configDir.toString(),
+            "XDG_CACHE_HOME", cacheDir.toString(),
+            "RHOAS_CONFIG", configDir.resolve("rhoas/config.json").toString(),
+            "RHOAS_CONTEXT", configDir.resolve("rhoas/contexts.json").toString(),
+            "KUBECONFIG", home.resolve(".kube/config").toString());
+    }
+
+    /**
+     * Delete the configuration and the login state of the session
+     */
+    public void delete() throws IOException {
+        log.info("delete CLI session '{}'", name);
+        FileUtils.deleteDirectory(home.toFile());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CLI session '%s' in %s", name, home);
+    }
+}
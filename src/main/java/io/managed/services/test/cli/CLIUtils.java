@@ -51,6 +51,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.zip.ZipFile;
 
 public class CLIUtils {
     private static final Logger LOGGER = LogManager.getLogger(CLIUtils.class);
@@ -87,6 +88,30 @@ public class CLIUtils {
         throw new IOException("cli not found");
     }
 
+    /**
+     * Extract the first entry matching entryMatch from a zip archive reading only its central directory and the
+     * entry itself
+     */
+    public static void extractCLI(Path archive, String entryMatch, Path dest) throws IOException {
+        try (var zip = new ZipFile(archive.toFile())) {
+            var e = zip.stream()
+                .filter(z -> z.getName().matches(entryMatch))
+                .findFirst()
+                .orElseThrow(() -> new IOException("cli not found"));
+
+            LOGGER.info("extract {} to {}", e.getName(), dest);
+
+            if (e.isDirectory()) {
+                throw new IOException("the entry " + e.getName() + " is a directory");
+            }
+
+            Files.createDirectories(dest.getParent());
+            try (var in = zip.getInputStream(e)) {
+                Files.copy(in, dest);
+            }
+        }
+    }
+
     public static CompletableFuture<Void> login(Vertx vertx, CLI cli, String username, String password) {
         var session = new KeycloakLoginSession(vertx, username, password);
         return login(vertx, cli, session);
@@ -0,0 +1,192 @@
+package io.managed.services.test.cli;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Persistent content-addressed cache for downloaded files shared by all the runs on the same machine.
+ * <p>
+ * The files are stored once by their SHA-256 digest in blobs/sha256/{digest} and are found through refs/{key}
+ * files that contain the digest, the refs can point to other refs to resolve mutable names like the latest
+ * version. Every file is written to a temporary file first and atomically moved in place, so concurrent runs
+ * never see partial files, and the digest of a blob is verified before it is returned.
+ */
+@Log4j2
+public class DownloadCache {
+
+    private static final String ALGORITHM = "SHA-256";
+
+    private final Path blobs;
+    private final Path refs;
+    private final Path tmp;
+
+    public DownloadCache(Path root) throws IOException {
+        this.blobs = root.resolve("blobs").resolve("sha256");
+        this.refs = root.resolve("refs");
+        this.tmp = root.resolve("tmp");
+        Files.createDirectories(blobs);
+        Files.createDirectories(refs);
+        Files.createDirectories(tmp);
+    }
+
+    /**
+     * @return the verified blob referenced by the key or empty if the key is not cached or the blob is corrupted
+     */
+    public Optional<Path> get(String key) throws IOException {
+        var digest = readRef(key, null);
+        if (digest.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var blob = blobs.resolve(digest.get());
+        if (!Files.isRegularFile(blob)) {
+            log.warn("blob {} referenced by '{}' not found", digest.get(), key);
+            return Optional.empty();
+        }
+
+        var actual = digest(blob);
+        if (!actual.equals(digest.get())) {
+            log.warn("blob {} referenced by '{}' is corrupted (actual digest: {}), remove it", digest.get(), key, actual);
+            Files.deleteIfExists(blob);
+            return Optional.empty();
+        }
+        return Optional.of(blob);
+    }
+
+    /**
+     * Move the file in the cache and reference it with the key
+     *
+     * @return the cached blob
+     */
+    public Path put(String key, Path file) throws IOException {
+        var digest = digest(file);
+        var blob = blobs.resolve(digest);
+        if (Files.exists(blob)) {
+            Files.delete(file);
+        } else {
+            move(file, blob);
+        }
+        writeRef(key, digest);
+        log.info("cache '{}' as {}", key, digest);
+        return blob;
+    }
+
+    /**
+     * Copy the stream in the cache and reference it with the key
+     */
+    public Path put(String key, InputStream in) throws IOException {
+        var file = newTempFile();
+        try (var out = Files.newOutputStream(file)) {
+            in.transferTo(out);
+        }
+        return put(key, file);
+    }
+
+    /**
+     * Point the alias to the key, for example to resolve the latest version without asking GitHub
+     */
+    public void alias(String alias, String key) throws IOException {
+        writeRef(alias, key);
+    }
+
+    /**
+     * @param maxAge the max age of the alias or null to ignore it
+     * @return the key of the alias if it exists and is not older than maxAge
+     */
+    public Optional<String> resolve(String alias, Duration maxAge) throws IOException {
+        return readRef(alias, maxAge);
+    }
+
+    /**
+     * @return a new temporary file on the same file system of the cache so that it can be moved atomically
+     */
+    public Path newTempFile() throws IOException {
+        return Files.createTempFile(tmp, "download-", ".tmp");
+    }
+
+    private Optional<String> readRef(String key, Duration maxAge) throws IOException {
+        var ref = refs.resolve(fileName(key));
+        if (!Files.isRegularFile(ref)) {
+            return Optional.empty();
+        }
+        if (maxAge != null && Files.getLastModifiedTime(ref).toInstant().plus(maxAge).isBefore(Instant.now())) {
+            log.info("ref '{}' is expired", key);
+            return Optional.empty();
+        }
+        return Optional.of(Files.readString(ref, StandardCharsets.UTF_8).strip());
+    }
+
+    private void writeRef(String key, String value) throws IOException {
+        var file = newTempFile();
+        Files.writeString(file, value, StandardCharsets.UTF_8);
+        move(file, refs.resolve(fileName(key)));
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (FileAlreadyExistsException e) {
+            // another run cached the same content at the same time
+            Files.deleteIfExists(source);
+        }
+    }
+
+    /**
+     * Escape the key so that it can be used as file name
+     */
+    private static String fileName(String key) {
+        return key.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    public static String digest(Path file) throws IOException {
+        try (var in = Files.newInputStream(file)) {
+            return digest(in);
+        }
+    }
+
+    /**
+     * Consume the stream and return its SHA-256 digest as lower case hex string
+     */
+    public static String digest(InputStream in) throws IOException {
+        var stream = digestInputStream(in);
+        stream.transferTo(OutputStream.nullOutputStream());
+        return hex(stream.getMessageDigest());
+    }
+
+    public static DigestInputStream digestInputStream(InputStream in) {
+        return digestInputStream(in, ALGORITHM);
+    }
+
+    public static DigestInputStream digestInputStream(InputStream in, String algorithm) {
+        try {
+            return new DigestInputStream(in, MessageDigest.getInstance(algorithm));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String hex(MessageDigest digest) {
+        var hex = new StringBuilder();
+        for (var b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -3,10 +3,14 @@ package io.managed.services.test.cli;
 import io.managed.services.test.Environment;
 import io.managed.services.test.RetryUtils;
 import io.managed.services.test.ThrowingSupplier;
+import io.managed.services.test.client.RangeDownloader;
+import io.managed.services.test.client.kafka.KafkaAuthMethod;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.apache.commons.io.FileUtils;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.common.config.SaslConfigs;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -15,17 +19,25 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.net.ConnectException;
 import java.net.SocketTimeoutException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -36,6 +48,11 @@ public class KafkaScripts {
 
     private static final Duration DEFAULT_TIMEOUT = ofMinutes(1);
 
+    private static final Duration CONSUMER_PERF_REPORTING_INTERVAL = Duration.ofSeconds(5);
+
+    private static final int CONNECTION_TIMEOUT_MS = 60_000;
+    private static final int READ_TIMEOUT_MS = 60_000;
+
     private String binariesWorkdir;
     private Path rootWorkDir;
 
@@ -67,7 +84,11 @@ public class KafkaScripts {
             cmd.set(0, "./" + scriptName + ".sh");
         }
 
-        return new ProcessBuilder(cmd).directory(new File(binariesWorkdir));
+        var builder = new ProcessBuilder(cmd).directory(new File(binariesWorkdir));
+
+        // kafka-run-class creates the LOG_DIR, by default in the distribution that is shared by all the runs
+        builder.environment().put("LOG_DIR", Paths.get(rootWorkDir.toString(), kafkaResource, "logs").toString());
+        return builder;
     }
 
     private AsyncProcess exec(String... command) throws ProcessException {
@@ -92,19 +113,50 @@ public class KafkaScripts {
 
     public void downloadAndExtractKafkaScripts() throws Throwable {
 
+        // the extracted distribution is shared by all the runs and never modified after it has been moved in place
+        var cached = Environment.CLI_CACHE_DIR.resolve("kafka").resolve(kafkaResource);
+        if (Files.isDirectory(cached)) {
+            LOGGER.info("found kafka scripts in the cache: {}", cached);
+        } else {
+            downloadAndExtractKafkaScriptsInCache(cached);
+        }
+
+        // the config and logs directories are per run because createAndSetUpConfigFile() writes the client
+        // configuration in the first and the scripts write their logs in the second
+        Files.createDirectories(Paths.get(rootWorkDir.toString(), kafkaResource, "config"));
+        Files.createDirectories(Paths.get(rootWorkDir.toString(), kafkaResource, "logs"));
+
+        // update command path to the kafka binaries. If windows /bin/windows otherwise /bin
+        var platform = Environment.CLI_PLATFORM;
+
+        if (Platform.WINDOWS.toString().equals(platform)) {
+            LOGGER.info("move to /bin/windows as bin directory for windows platform");
+            this.binariesWorkdir = cached.resolve("bin").resolve("windows").toString();
+        } else {
+            LOGGER.info("move to /bin as bin directory for none windows platform");
+            this.binariesWorkdir = cached.resolve("bin").toString();
+        }
+    }
+
+    private void downloadAndExtractKafkaScriptsInCache(Path cached) throws Throwable {
+
         String kafkaURLString = String.format("https://dlcdn.apache.org/kafka/%s/%s.tgz", kafkaVersion, kafkaResource);
-        LOGGER.info("downloading kafka scripts from url: {}", kafkaURLString);
+        String checksumURLString = String.format("https://downloads.apache.org/kafka/%s/%s.tgz.sha512", kafkaVersion, kafkaResource);
 
-        // alternative download for exec("wget", kafkaURLString, "-P", ".", "--quiet")
+        var checksum = readSha512(new URL(checksumURLString));
+        LOGGER.info("expected kafka scripts SHA-512: {}", checksum);
 
-        // attempt to download kafka scripts
-        Path source = Paths.get(rootWorkDir.toString(), "kafka.tgz");
-        int connectionTimeoutMs = 60_000;
-        int readTimeoutMs = 60_000;
         // function to attempt download kafka scripts
         ThrowingSupplier<Void, Throwable> attemptDownloadCli = () -> {
-            LOGGER.info("start attempt to download kafka scripts");
-            FileUtils.copyURLToFile(new URL(kafkaURLString), source.toFile(), connectionTimeoutMs, readTimeoutMs);
+            LOGGER.info("start attempt to download kafka scripts from url: {}", kafkaURLString);
+            var target = Files.createTempDirectory(Files.createDirectories(cached.getParent()), kafkaResource + "-");
+            try {
+                extractKafkaScripts(RangeDownloader.defaultDownloader().open(kafkaURLString), target, checksum);
+                moveInCache(target, cached);
+            } catch (Throwable t) {
+                FileUtils.deleteDirectory(target.toFile());
+                throw t;
+            }
             LOGGER.info("finish attempt to download kafka scripts");
             return null;
         };
@@ -128,82 +180,101 @@ public class KafkaScripts {
                 downloadRetryCondition,
                 3
         );
+    }
 
-        LOGGER.info("extract binaries");
-
-        // destination of decompression
-        Path target = rootWorkDir;
-
-        if (Files.notExists(source)) {
-            throw new IOException(" The file you want to extract does not exist ");
-        }
-
-
-        try (InputStream fi = Files.newInputStream(source);
-             BufferedInputStream bi = new BufferedInputStream(fi);
+    /**
+     * Extract the needed directories straight from the network stream while computing its SHA-512 digest, the rest
+     * of the archive is only read to complete the digest
+     */
+    private void extractKafkaScripts(InputStream download, Path target, String checksum) throws IOException {
+        try (var di = DownloadCache.digestInputStream(download, "SHA-512");
+             BufferedInputStream bi = new BufferedInputStream(di);
              GzipCompressorInputStream gzi = new GzipCompressorInputStream(bi);
              TarArchiveInputStream ti = new TarArchiveInputStream(gzi)) {
 
             ArchiveEntry entry;
             while ((entry = ti.getNextEntry()) != null) {
-
-                // Get the unzip file directory , And determine whether the file is damaged
-                Path newPath = zipSlipProtect(entry, target);
-
-                if (entry.isDirectory()) {
-                    // Create a directory for extracting files
-                    Files.createDirectories(newPath);
-                } else {
-                    // Verify the existence of the extracted file directory again
-                    Path parent = newPath.getParent();
-                    if (parent != null) {
-                        if (Files.notExists(parent)) {
-                            Files.createDirectories(parent);
-                        }
-                    }
-                    //  Input the extracted file into TarArchiveInputStream, Output to disk newPath Catalog
-                    Files.copy(ti, newPath, StandardCopyOption.REPLACE_EXISTING);
-
+                if (entry.isDirectory() || !isNeeded(entry.getName())) {
+                    continue;
                 }
+
+                // strip the kafka_{scala}-{version} root directory
+                var name = entry.getName().substring(entry.getName().indexOf('/') + 1);
+                Path newPath = zipSlipProtect(name, target);
+                Files.createDirectories(newPath.getParent());
+                Files.copy(ti, newPath, StandardCopyOption.REPLACE_EXISTING);
             }
-        }
 
-        // update command path to the kafka binaries. If windows /bin/windows otherwise /bin
-        var platform = Environment.CLI_PLATFORM;
+            // consume the padding of the tar and the gzip trailer
+            bi.transferTo(OutputStream.nullOutputStream());
 
-        if (Platform.WINDOWS.toString().equals(platform)) {
-            LOGGER.info("move to /bin/windows as bin directory for windows platform");
-            this.binariesWorkdir = Paths.get(rootWorkDir.toString(), kafkaResource, "bin", "windows").toString();
-        } else {
-            LOGGER.info("move to /bin as bin directory for none windows platform");
-            this.binariesWorkdir = Paths.get(rootWorkDir.toString(), kafkaResource, "bin").toString();
+            var digest = DownloadCache.hex(di.getMessageDigest());
+            if (!digest.equals(checksum)) {
+                throw new IOException(String.format("the SHA-512 of %s.tgz is %s but %s was expected", kafkaResource, digest, checksum));
+            }
         }
 
         // after unzip in java all rights to execute are forbidden.
         // Because scripts that we will use depends on others we will allow execution of all
-        try (Stream<Path> paths = Files.walk(Paths.get(this.binariesWorkdir))) {
+        try (Stream<Path> paths = Files.walk(target.resolve("bin"))) {
             paths
                     .filter(Files::isRegularFile)
                     .forEach(f -> f.toFile().setExecutable(true, false));
         }
     }
 
+    private static boolean isNeeded(String name) {
+        var path = name.substring(name.indexOf('/') + 1);
+        return path.startsWith("bin/") || path.startsWith("libs/") || path.equals("config/tools-log4j.properties");
+    }
+
+    private static void moveInCache(Path source, Path cached) throws IOException {
+        try {
+            Files.move(source, cached, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.info("kafka scripts cached in: {}", cached);
+        } catch (IOException e) {
+            if (!Files.isDirectory(cached)) {
+                throw e;
+            }
+            // another run cached the same version at the same time
+            LOGGER.info("kafka scripts already cached in: {}", cached);
+            FileUtils.deleteDirectory(source.toFile());
+        }
+    }
+
+    /**
+     * Read the checksum published by Apache in the format: {file}: {hex in groups of 8 on multiple lines}
+     */
+    private static String readSha512(URL url) throws IOException {
+        try (var in = openConnection(url)) {
+            var content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return content.substring(content.indexOf(':') + 1).replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static InputStream openConnection(URL url) throws IOException {
+        var connection = url.openConnection();
+        connection.setConnectTimeout(CONNECTION_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        return connection.getInputStream();
+    }
+
     // Determine whether the compressed file is damaged , And return to the unzipped directory of the file
-    private Path zipSlipProtect(ArchiveEntry entry, Path targetDir) throws IOException {
-        Path targetDirResolved = targetDir.resolve(entry.getName());
+    private Path zipSlipProtect(String name, Path targetDir) throws IOException {
+        Path targetDirResolved = targetDir.resolve(name);
         Path normalizePath = targetDirResolved.normalize();
 
         if (!normalizePath.startsWith(targetDir)) {
-            throw new IOException(" The compressed file has been damaged : " + entry.getName());
+            throw new IOException(" The compressed file has been damaged : " + name);
         }
 
         return normalizePath;
     }
 
     public Path createAndSetUpConfigFile(String content) throws ProcessException, IOException {
-        String propertiesFile = "app-services.properties";
+        String propertiesFIle = "app-services.properties";
 
-        Path pathToNewPropertyFile = Paths.get(rootWorkDir.toString(), kafkaResource, "config", propertiesFile);
+        Path pathToNewPropertyFile = Paths.get(rootWorkDir.toString(), kafkaResource, "config", propertiesFIle);
 
         FileWriter fileWriter = new FileWriter(pathToNewPropertyFile.toString());
         PrintWriter printWriter = new PrintWriter(fileWriter);
@@ -269,4 +340,92 @@ public class KafkaScripts {
                 "--consumer.config", propertiesFIle.toString()
         );
     }
+
+    /**
+     * Generate the client properties for createAndSetUpConfigFile(), the OAuth login uses the OAUTHBEARER
+     * callback handler included in the Kafka distribution because the Strimzi one used by the Java clients is
+     * not available to the scripts
+     */
+    public static String clientProperties(KafkaAuthMethod method, String bootstrapHost, String clientId, String clientSecret) {
+        Map<String, String> configs;
+        if (method == KafkaAuthMethod.OAUTH) {
+            configs = new HashMap<>();
+            configs.put(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, bootstrapHost);
+            configs.put(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, "SASL_SSL");
+            configs.put(SaslConfigs.SASL_MECHANISM, "OAUTHBEARER");
+            configs.put(SaslConfigs.SASL_JAAS_CONFIG, String.format(
+                "org.apache.kafka.common.security.oauthbearer.OAuthBearerLoginModule required clientId=\"%s\" clientSecret=\"%s\";",
+                clientId, clientSecret));
+            configs.put(SaslConfigs.SASL_LOGIN_CALLBACK_HANDLER_CLASS,
+                "org.apache.kafka.common.security.oauthbearer.secured.OAuthBearerLoginCallbackHandler");
+            // the constant is not available in the kafka-clients version of the suite but the scripts support it
+            configs.put("sasl.oauthbearer.token.endpoint.url", String.format(
+                "%s/auth/realms/%s/protocol/openid-connect/token", Environment.OPENSHIFT_IDENTITY_URI, Environment.OPENSHIFT_IDENTITY_REALM));
+            KafkaAuthMethod.setTrustConfigs(bootstrapHost, configs);
+        } else {
+            configs = method.configs(bootstrapHost, clientId, clientSecret);
+        }
+
+        // use Properties to escape the multi-line values like the PEM certificates
+        var properties = new Properties();
+        properties.putAll(configs);
+        var writer = new StringWriter();
+        try {
+            properties.store(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * @param throughput the max records per second or -1 to disable the throttling
+     */
+    public AsyncProcess startProducerPerfTest(String topicName, long records, int recordSize, long throughput,
+                                              String bootstrapServer, Path propertiesFIle) {
+        return execAsync(
+                "kafka-producer-perf-test",
+                "--topic", topicName,
+                "--num-records", String.valueOf(records),
+                "--record-size", String.valueOf(recordSize),
+                "--throughput", String.valueOf(throughput),
+                "--producer-props", String.format("bootstrap.servers=%s", bootstrapServer),
+                "--producer.config", propertiesFIle.toString()
+        );
+    }
+
+    public AsyncProcess startConsumerPerfTest(String topicName, long messages, String bootstrapServer,
+                                              Path propertiesFIle, Duration reportingInterval, Duration timeout) {
+        return execAsync(
+                "kafka-consumer-perf-test",
+                "--topic", topicName,
+                "--messages", String.valueOf(messages),
+                "--bootstrap-server", bootstrapServer,
+                "--consumer.config", propertiesFIle.toString(),
+                "--show-detailed-stats",
+                "--reporting-interval", String.valueOf(reportingInterval.toMillis()),
+                "--timeout", String.valueOf(timeout.toMillis())
+        );
+    }
+
+    public PerfTestReport producerPerfTest(String topicName, long records, int recordSize, long throughput,
+                                           String bootstrapServer, Path propertiesFIle, Duration timeout) throws ProcessException {
+
+        var process = startProducerPerfTest(topicName, records, recordSize, throughput, bootstrapServer, propertiesFIle).sync(timeout);
+        var report = PerfTestReport.parseProducerOutput(process.stdoutReader());
+        LOGGER.info("producer perf test: {}", report);
+        return report;
+    }
+
+    public PerfTestReport consumerPerfTest(String topicName, long messages, String bootstrapServer,
+                                           Path propertiesFIle, Duration timeout) throws ProcessException {
+
+        // the consumer perf test fails if no message is received within its timeout, therefore the process is
+        // allowed one more minute
+        var process = startConsumerPerfTest(topicName, messages, bootstrapServer, propertiesFIle,
+            CONSUMER_PERF_REPORTING_INTERVAL, timeout).sync(timeout.plus(DEFAULT_TIMEOUT));
+        var report = PerfTestReport.parseConsumerOutput(process.stdoutReader());
+        LOGGER.info("consumer perf test: {}", report);
+        return report;
+    }
 }
@@ -2,6 +2,7 @@ package io.managed.services.test.cli;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -72,24 +73,54 @@ public class Kcat {
         return exec("-V").stdoutAsString();
     }
 
-    public AsyncProcess startProducer(String topic, String bootstrapServer, String username, String password) {
-        return execAsync("-t", topic,
+    private static List<String> connection(String topic, String bootstrapServer, String username, String password) {
+        return List.of("-t", topic,
             "-b", bootstrapServer,
             "-X", "security.protocol=SASL_SSL",
             "-X", "sasl.mechanisms=PLAIN",
             "-X", String.format("sasl.username=%s", username),
-            "-X", String.format("sasl.password=%s", password),
-            "-P");
+            "-X", String.format("sasl.password=%s", password));
+    }
+
+    public AsyncProcess startProducer(String topic, String bootstrapServer, String username, String password) {
+        var cmd = new ArrayList<>(connection(topic, bootstrapServer, username, password));
+        cmd.add("-P");
+        return execAsync(cmd);
     }
 
     public AsyncProcess startConsumer(String topic, String bootstrapServer, String username, String password) {
-        return execAsync("-t", topic,
-            "-b", bootstrapServer,
-            "-X", "security.protocol=SASL_SSL",
-            "-X", "sasl.mechanisms=PLAIN",
-            "-X", String.format("sasl.username=%s", username),
-            "-X", String.format("sasl.password=%s", password),
-            "-u", // Unbuffered output otherwise messages are flush only after receiving the SIGINT signal
-            "-C");
+        var cmd = new ArrayList<>(connection(topic, bootstrapServer, username, password));
+        cmd.add("-u"); // Unbuffered output otherwise messages are flush only after receiving the SIGINT signal
+        cmd.add("-C");
+        return execAsync(cmd);
+    }
+
+    /**
+     * Produce one message for each line of the file, or of the stdin if the file is null, and print the librdkafka
+     * statistics every statisticsInterval
+     */
+    public AsyncProcess startBulkProducer(String topic, String bootstrapServer, String username, String password,
+                                          Path messages, Duration statisticsInterval) {
+
+        var cmd = new ArrayList<>(connection(topic, bootstrapServer, username, password));
+        cmd.addAll(List.of("-X", String.format("statistics.interval.ms=%d", statisticsInterval.toMillis())));
+        cmd.add("-P");
+        if (messages != null) {
+            cmd.addAll(List.of("-l", messages.toString()));
+        }
+        return execAsync(cmd);
+    }
+
+    /**
+     * Consume the topic from the beginning and exit at the end of the last partition, only the offsets are printed
+     * to keep the output small, together with the librdkafka statistics every statisticsInterval
+     */
+    public AsyncProcess startBulkConsumer(String topic, String bootstrapServer, String username, String password,
+                                          Duration statisticsInterval) {
+
+        var cmd = new ArrayList<>(connection(topic, bootstrapServer, username, password));
+        cmd.addAll(List.of("-X", String.format("statistics.interval.ms=%d", statisticsInterval.toMillis())));
+        cmd.addAll(List.of("-C", "-e", "-q", "-o", "beginning", "-f", "%o\\n"));
+        return execAsync(cmd);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package io.managed.services.test.cli;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bulk throughput harness that uses kcat as independent native load source against a Kafka instance.
+ * <p>
+ * The producer sends the lines of a generated file either at full speed, letting kcat read the file, or at a
+ * target rate, pacing the lines through the stdin pipe of kcat. The consumer reads the whole topic and exits at
+ * its end. Both runs collect the librdkafka statistics and return them as a {@link KcatReport}.
+ */
+@Log4j2
+public class KcatLoad {
+
+    private static final Duration DEFAULT_STATISTICS_INTERVAL = Duration.ofSeconds(1);
+
+    // how often the paced producer writes a batch of messages to kcat
+    private static final long PACING_INTERVAL_MS = 50;
+
+    private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+
+    private final Kcat kcat;
+    private final String topic;
+    private final String bootstrapServer;
+    private final String username;
+    private final String password;
+
+    private Duration statisticsInterval = DEFAULT_STATISTICS_INTERVAL;
+
+    public KcatLoad(Kcat kcat, String topic, String bootstrapServer, String username, String password) {
+        this.kcat = kcat;
+        this.topic = topic;
+        this.bootstrapServer = bootstrapServer;
+        this.username = username;
+        this.password = password;
+    }
+
+    public KcatLoad statisticsInterval(Duration statisticsInterval) {
+        this.statisticsInterval = statisticsInterval;
+        return this;
+    }
+
+    /**
+     * Generate a file in the kcat workdir with one random alphanumeric message of the given size per line
+     */
+    public Path generateMessages(int count, int size) throws IOException {
+        var file = kcat.getWorkdir().toPath().resolve(String.format("messages-%dx%d.txt", count, size));
+        var random = new Random();
+        var line = new char[size];
+
+        log.info("generate {} messages of {} bytes in {}", count, size, file);
+        try (var writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (var i = 0; i < count; i++) {
+                for (var j = 0; j < size; j++) {
+                    line[j] = ALPHABET[random.nextInt(ALPHABET.length)];
+                }
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Produce all the messages in the file
+     *
+     * @param rate the target rate in messages per second or 0 to produce as fast as possible
+     */
+    public KcatReport produce(Path messages, double rate, Duration timeout)
+        throws IOException, ProcessException, InterruptedException {
+
+        if (rate <= 0) {
+            log.info("produce {} to topic {} at full speed", messages, topic);
+            var process = kcat.startBulkProducer(topic, bootstrapServer, username, password, messages, statisticsInterval);
+            return report(process.sync(timeout));
+        }
+
+        log.info("produce {} to topic {} at {} messages/s", messages, topic, rate);
+        var process = kcat.startBulkProducer(topic, bootstrapServer, username, password, null, statisticsInterval);
+        try (var in = Files.newBufferedReader(messages, StandardCharsets.US_ASCII);
+             var out = process.stdin()) {
+            pace(in, out, rate);
+        }
+        return report(process.sync(timeout));
+    }
+
+    /**
+     * Write the lines to kcat at the target rate, in small batches so that the pipe never runs empty
+     */
+    static void pace(BufferedReader in, Writer out, double rate) throws IOException, InterruptedException {
+        var start = System.nanoTime();
+        var sent = 0L;
+        String line;
+        while ((line = in.readLine()) != null) {
+            while (sent >= (long) ((System.nanoTime() - start) / 1e9 * rate)) {
+                out.flush();
+                Thread.sleep(PACING_INTERVAL_MS);
+            }
+            out.write(line);
+            out.write('\n');
+            sent++;
+        }
+    }
+
+    /**
+     * Consume the topic from the beginning until the end of the last partition
+     */
+    public KcatReport consume(Duration timeout) throws ProcessException {
+        log.info("consume topic {} till the end", topic);
+        var process = kcat.startBulkConsumer(topic, bootstrapServer, username, password, statisticsInterval);
+        return report(process.sync(timeout));
+    }
+
+    private static KcatReport report(AsyncProcess process) {
+        var samples = new ArrayList<KcatStats>();
+        collect(process.stderrReader(), samples);
+        collect(process.stdoutReader(), samples);
+        process.releaseOutput();
+        samples.sort(Comparator.comparingLong(KcatStats::getAge));
+
+        if (samples.isEmpty()) {
+            log.warn("kcat exited before printing the statistics, try with a shorter statistics interval");
+        }
+
+        var report = KcatReport.of(samples);
+        log.info(report);
+        return report;
+    }
+
+    private static void collect(BufferedReader reader, List<KcatStats> samples) {
+        try (reader) {
+            reader.lines().forEach(l -> KcatStats.parse(l).ifPresent(samples::add));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.managed.services.test.cli;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Throughput and broker round-trip latency of a kcat run computed from its {@link KcatStats} samples, in the same
+ * units used for the Java clients (messages and bytes per second, milliseconds) so that they can be compared.
+ */
+@Getter
+public class KcatReport {
+
+    private final String type;
+    private final long messages;
+    private final long bytes;
+    private final Duration duration;
+    private final List<Interval> intervals;
+
+    private KcatReport(String type, long messages, long bytes, Duration duration, List<Interval> intervals) {
+        this.type = type;
+        this.messages = messages;
+        this.bytes = bytes;
+        this.duration = duration;
+        this.intervals = intervals;
+    }
+
+    public static KcatReport of(List<KcatStats> samples) {
+        if (samples.isEmpty()) {
+            return new KcatReport("unknown", 0, 0, Duration.ZERO, List.of());
+        }
+
+        var intervals = new ArrayList<Interval>();
+        KcatStats previous = null;
+        for (var sample : samples) {
+            var seconds = (sample.getAge() - (previous == null ? 0 : previous.getAge())) / 1e6;
+            if (seconds > 0) {
+                var messages = sample.getMessages() - (previous == null ? 0 : previous.getMessages());
+                var bytes = sample.getBytes() - (previous == null ? 0 : previous.getBytes());
+                intervals.add(new Interval(
+                    Duration.ofNanos(sample.getAge() * 1000),
+                    messages / seconds,
+                    bytes / seconds,
+                    sample.getRttP50(),
+                    sample.getRttP95(),
+                    sample.getRttP99(),
+                    sample.getConsumerLag()));
+            }
+            previous = sample;
+        }
+
+        var last = samples.get(samples.size() - 1);
+        return new KcatReport(last.getType(), last.getMessages(), last.getBytes(), Duration.ofNanos(last.getAge() * 1000), intervals);
+    }
+
+    public double getMessagesPerSecond() {
+        return duration.isZero() ? 0 : messages / (duration.toNanos() / 1e9);
+    }
+
+    public double getBytesPerSecond() {
+        return duration.isZero() ? 0 : bytes / (duration.toNanos() / 1e9);
+    }
+
+    /**
+     * @return the mean of the p50 round-trip times of all intervals in milliseconds
+     */
+    public double getRttP50() {
+        return intervals.stream().mapToDouble(Interval::getRttP50).average().orElse(0);
+    }
+
+    /**
+     * @return the worst p95 round-trip time of all intervals in milliseconds
+     */
+    public double getRttP95() {
+        return intervals.stream().mapToDouble(Interval::getRttP95).max().orElse(0);
+    }
+
+    /**
+     * @return the worst p99 round-trip time of all intervals in milliseconds
+     */
+    public double getRttP99() {
+        return intervals.stream().mapToDouble(Interval::getRttP99).max().orElse(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+            "kcat %s: %d messages, %d bytes in %.1fs (%.0f msg/s, %.2f MB/s), rtt p50/p95/p99: %.1f/%.1f/%.1f ms",
+            type, messages, bytes, duration.toMillis() / 1000.0, getMessagesPerSecond(), getBytesPerSecond() / 1e6,
+            getRttP50(), getRttP95(), getRttP99());
+    }
+
+    /**
+     * Throughput and latency between two consecutive statistics samples
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Interval {
+        // end of the interval since the start of the client
+        private final Duration end;
+        private final double messagesPerSecond;
+        private final double bytesPerSecond;
+        private final double rttP50;
+        private final double rttP95;
+        private final double rttP99;
+        private final long consumerLag;
+    }
+}
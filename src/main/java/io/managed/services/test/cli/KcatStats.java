@@ -0,0 +1,101 @@
+package io.managed.services.test.cli;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * One sample of the librdkafka statistics emitted by kcat every statistics.interval.ms
+ * <p>
+ * The counters are cumulative since the creation of the client, while the broker round-trip times are the
+ * percentiles of the last interval, in milliseconds and the max between all brokers.
+ * <p>
+ * See: https://github.com/confluentinc/librdkafka/blob/master/STATISTICS.md
+ */
+@Getter
+@AllArgsConstructor
+public class KcatStats {
+
+    // producer or consumer
+    private final String type;
+    // microseconds since the creation of the client
+    private final long age;
+
+    private final long txMessages;
+    private final long txBytes;
+    private final long rxMessages;
+    private final long rxBytes;
+
+    private final double rttP50;
+    private final double rttP95;
+    private final double rttP99;
+
+    private final long consumerLag;
+
+    /**
+     * @return the statistics if the line is a librdkafka statistics JSON
+     */
+    public static Optional<KcatStats> parse(String line) {
+        var json = line.strip();
+        if (!json.startsWith("{") || !json.contains("\"rxmsg_bytes\"")) {
+            return Optional.empty();
+        }
+
+        JsonNode root;
+        try {
+            root = AsyncProcess.jsonReader(JsonNode.class).readTree(json);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+
+        var rtt = new double[3];
+        for (var broker : root.path("brokers")) {
+            var window = broker.path("rtt");
+            if (window.path("cnt").asLong() == 0) {
+                continue;
+            }
+            rtt[0] = Math.max(rtt[0], window.path("p50").asDouble() / 1000);
+            rtt[1] = Math.max(rtt[1], window.path("p95").asDouble() / 1000);
+            rtt[2] = Math.max(rtt[2], window.path("p99").asDouble() / 1000);
+        }
+
+        var lag = 0L;
+        for (var topic : root.path("topics")) {
+            for (var partition : topic.path("partitions")) {
+                // the partition -1 is the internal UA (unassigned) partition and the lag is -1 when unknown
+                var value = partition.path("consumer_lag").asLong(-1);
+                if (partition.path("partition").asInt() >= 0 && value > 0) {
+                    lag += value;
+                }
+            }
+        }
+
+        return Optional.of(new KcatStats(
+            root.path("type").asText(),
+            root.path("age").asLong(),
+            root.path("txmsgs").asLong(),
+            root.path("txmsg_bytes").asLong(),
+            root.path("rxmsgs").asLong(),
+            root.path("rxmsg_bytes").asLong(),
+            rtt[0], rtt[1], rtt[2],
+            lag));
+    }
+
+    public boolean isProducer() {
+        return "producer".equals(type);
+    }
+
+    /**
+     * @return the messages produced or consumed depending on the client type
+     */
+    public long getMessages() {
+        return isProducer() ? txMessages : rxMessages;
+    }
+
+    public long getBytes() {
+        return isProducer() ? txBytes : rxBytes;
+    }
+}
@@ -0,0 +1,296 @@
+package io.managed.services.test.cli;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Capture the output of a process in a fixed size in-memory ring buffer, when the buffer is full the oldest bytes
+ * are appended to a temporary spill file, so that the memory used by long-running processes stays bounded while
+ * the full output remains available.
+ * <p>
+ * Each byte is addressed by its absolute position since the start of the output, the positions before
+ * {@link #spilled} are in the spill file and the others in the ring buffer.
+ */
+@Log4j2
+public class OutputCapture extends OutputStream {
+
+    private final String name;
+    private final byte[] ring;
+
+    // position of the oldest byte in the ring
+    private int head = 0;
+    // number of bytes in the ring
+    private int count = 0;
+    // number of bytes in the spill file
+    private long spilled = 0;
+
+    private Path spillPath;
+    private FileChannel spill;
+
+    // no more output will be written
+    private boolean finished = false;
+
+    public OutputCapture(String name, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("the capacity must be greater than 0");
+        }
+        this.name = name;
+        this.ring = new byte[capacity];
+    }
+
+    @Override
+    public void write(int b) {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        if (len >= ring.length) {
+            // the new bytes alone fill the ring, spill the whole ring and the head of the new bytes
+            spillRing(count);
+            spillBytes(b, off, len - ring.length);
+            System.arraycopy(b, off + len - ring.length, ring, 0, ring.length);
+            head = 0;
+            count = ring.length;
+            notifyAll();
+            return;
+        }
+
+        var overflow = count + len - ring.length;
+        if (overflow > 0) {
+            spillRing(overflow);
+        }
+
+        var tail = (head + count) % ring.length;
+        var first = Math.min(len, ring.length - tail);
+        System.arraycopy(b, off, ring, tail, first);
+        System.arraycopy(b, off + first, ring, 0, len - first);
+        count += len;
+        notifyAll();
+    }
+
+    private void spillRing(int len) {
+        var first = Math.min(len, ring.length - head);
+        spillBytes(ring, head, first);
+        spillBytes(ring, 0, len - first);
+        head = (head + len) % ring.length;
+        count -= len;
+    }
+
+    private void spillBytes(byte[] b, int off, int len) {
+        if (len == 0) {
+            return;
+        }
+        try {
+            if (spill == null) {
+                spillPath = Files.createTempFile("process-" + name + "-", ".out");
+                spillPath.toFile().deleteOnExit();
+                spill = FileChannel.open(spillPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                log.debug("spill {} output to {}", name, spillPath);
+            }
+
+            var buffer = ByteBuffer.wrap(b, off, len);
+            while (buffer.hasRemaining()) {
+                spilled += spill.write(buffer, spilled);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the total number of bytes written
+     */
+    public synchronized long size() {
+        return spilled + count;
+    }
+
+    /**
+     * Read up to len bytes starting at the absolute position
+     *
+     * @return the number of bytes read or -1 if the position is at the end of the output
+     */
+    public synchronized int read(long position, byte[] b, int off, int len) throws IOException {
+        if (position >= spilled + count) {
+            return -1;
+        }
+
+        if (position < spilled) {
+            var n = (int) Math.min(len, spilled - position);
+            var buffer = ByteBuffer.wrap(b, off, n);
+            while (buffer.hasRemaining()) {
+                spill.read(buffer, position + buffer.position() - off);
+            }
+            return n;
+        }
+
+        var start = (int) (position - spilled);
+        var n = Math.min(len, count - start);
+        var from = (head + start) % ring.length;
+        var first = Math.min(n, ring.length - from);
+        System.arraycopy(ring, from, b, off, first);
+        System.arraycopy(ring, 0, b, off + first, n - first);
+        return n;
+    }
+
+    /**
+     * @return a stream of the output written till now
+     */
+    public InputStream openStream() {
+        var end = size();
+        return new InputStream() {
+            private long position = 0;
+
+            @Override
+            public int read() throws IOException {
+                var b = new byte[1];
+                return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0) {
+                    return 0;
+                }
+                var max = (int) Math.min(len, end - position);
+                if (max <= 0) {
+                    return -1;
+                }
+                var n = OutputCapture.this.read(position, b, off, max);
+                if (n > 0) {
+                    position += n;
+                }
+                return n;
+            }
+        };
+    }
+
+    /**
+     * Mark the end of the output and wake up all the following streams
+     */
+    public synchronized void finish() {
+        finished = true;
+        notifyAll();
+    }
+
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Wait until the end of the output is marked with {@link #finish()}
+     *
+     * @return false if the timeout expired
+     */
+    public synchronized boolean awaitFinished(Duration timeout) throws InterruptedException {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        while (!finished) {
+            var left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+        return true;
+    }
+
+    /**
+     * @return a stream of the whole output that blocks waiting for new output until the end of the output is marked
+     */
+    public InputStream follow() {
+        return new InputStream() {
+            private long position = 0;
+
+            @Override
+            public int read() throws IOException {
+                var b = new byte[1];
+                return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0) {
+                    return 0;
+                }
+                synchronized (OutputCapture.this) {
+                    try {
+                        while (position >= size() && !finished) {
+                            OutputCapture.this.wait();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                    var n = OutputCapture.this.read(position, b, off, len);
+                    if (n > 0) {
+                        position += n;
+                    }
+                    return n;
+                }
+            }
+
+            @Override
+            public int available() {
+                return (int) Math.min(Integer.MAX_VALUE, Math.max(0, size() - position));
+            }
+        };
+    }
+
+    /**
+     * @return a reader of the output written till now
+     */
+    public BufferedReader openReader() {
+        return new BufferedReader(new InputStreamReader(openStream(), StandardCharsets.UTF_8));
+    }
+
+    public String toString(Charset charset) {
+        try (var stream = openStream()) {
+            return new String(stream.readAllBytes(), charset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Delete the spill file and discard the captured output, the following writes start a new capture
+     */
+    @Override
+    public synchronized void close() {
+        head = 0;
+        count = 0;
+        spilled = 0;
+        if (spill == null) {
+            return;
+        }
+        try {
+            spill.close();
+            Files.deleteIfExists(spillPath);
+        } catch (IOException e) {
+            log.warn("failed to delete the spill file {}: ", spillPath, e);
+        } finally {
+            spill = null;
+            spillPath = null;
+        }
+    }
+}
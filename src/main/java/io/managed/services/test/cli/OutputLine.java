@@ -0,0 +1,26 @@
+package io.managed.services.test.cli;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * A line written by a process to stdout or stderr with the time it has been read
+ */
+@Getter
+@AllArgsConstructor
+public class OutputLine {
+
+    public static final String STDOUT = "stdout";
+    public static final String STDERR = "stderr";
+
+    private final String stream;
+    private final Instant time;
+    private final String text;
+
+    @Override
+    public String toString() {
+        return String.format("%s [%s] %s", time, stream, text);
+    }
+}
@@ -0,0 +1,193 @@
+package io.managed.services.test.cli;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Throughput and latency series parsed from the periodic output of kafka-producer-perf-test.sh and
+ * kafka-consumer-perf-test.sh.
+ * <p>
+ * The consumer tool doesn't measure latency, therefore all latencies of a consumer report are NaN.
+ */
+@Getter
+public class PerfTestReport {
+
+    // kafka-producer-perf-test.sh prints a window every 5 seconds and a last line with the percentiles:
+    // 1000 records sent, 199.8 records/sec (0.19 MB/sec), 5.2 ms avg latency, 110.0 ms max latency[, 3 ms 50th, 8 ms 95th, 80 ms 99th, 110 ms 99.9th].
+    private static final Pattern PRODUCER_LINE = Pattern.compile(
+        "^(\\d+) records sent, ([\\d.]+) records/sec \\(([\\d.]+) MB/sec\\), ([\\d.]+) ms avg latency, ([\\d.]+) ms max latency"
+            + "(?:, (\\d+) ms 50th, (\\d+) ms 95th, (\\d+) ms 99th, (\\d+) ms 99.9th)?\\.$");
+
+    private static final Duration PRODUCER_REPORTING_INTERVAL = Duration.ofSeconds(5);
+
+    // kafka-consumer-perf-test.sh --show-detailed-stats prints one line per interval with the columns:
+    // time, threadId, data.consumed.in.MB, MB.sec, data.consumed.in.nMsg, nMsg.sec, rebalance.time.ms, fetch.time.ms, fetch.MB.sec, fetch.nMsg.sec
+    private static final DateTimeFormatter CONSUMER_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss:SSS", Locale.ROOT);
+
+    private final List<Sample> samples;
+
+    private final long records;
+    private final double recordsPerSecond;
+    private final double megabytesPerSecond;
+
+    private final double avgLatency;
+    private final double maxLatency;
+    private final double latencyP50;
+    private final double latencyP95;
+    private final double latencyP99;
+    private final double latencyP999;
+
+    private PerfTestReport(List<Sample> samples, long records, double recordsPerSecond, double megabytesPerSecond,
+                           double avgLatency, double maxLatency, double[] percentiles) {
+        this.samples = samples;
+        this.records = records;
+        this.recordsPerSecond = recordsPerSecond;
+        this.megabytesPerSecond = megabytesPerSecond;
+        this.avgLatency = avgLatency;
+        this.maxLatency = maxLatency;
+        this.latencyP50 = percentiles[0];
+        this.latencyP95 = percentiles[1];
+        this.latencyP99 = percentiles[2];
+        this.latencyP999 = percentiles[3];
+    }
+
+    /**
+     * Parse the output line by line while it's read, the reader is closed at the end
+     */
+    public static PerfTestReport parseProducerOutput(BufferedReader reader) {
+        try (reader) {
+            return parseProducer(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static PerfTestReport parseProducer(BufferedReader reader) throws IOException {
+        var samples = new ArrayList<Sample>();
+        PerfTestReport report = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            var m = PRODUCER_LINE.matcher(line.strip());
+            if (!m.matches()) {
+                continue;
+            }
+
+            var records = Long.parseLong(m.group(1));
+            var recordsPerSecond = Double.parseDouble(m.group(2));
+            var megabytesPerSecond = Double.parseDouble(m.group(3));
+            var avgLatency = Double.parseDouble(m.group(4));
+            var maxLatency = Double.parseDouble(m.group(5));
+
+            if (m.group(6) == null) {
+                var elapsed = PRODUCER_REPORTING_INTERVAL.multipliedBy(samples.size() + 1L);
+                samples.add(new Sample(elapsed, records, recordsPerSecond, megabytesPerSecond, avgLatency, maxLatency));
+                continue;
+            }
+
+            var percentiles = new double[] {
+                Double.parseDouble(m.group(6)),
+                Double.parseDouble(m.group(7)),
+                Double.parseDouble(m.group(8)),
+                Double.parseDouble(m.group(9))};
+            report = new PerfTestReport(samples, records, recordsPerSecond, megabytesPerSecond, avgLatency, maxLatency, percentiles);
+        }
+
+        if (report == null) {
+            throw new IllegalArgumentException("the summary line of kafka-producer-perf-test not found");
+        }
+        return report;
+    }
+
+    /**
+     * Parse the output line by line while it's read, the reader is closed at the end
+     */
+    public static PerfTestReport parseConsumerOutput(BufferedReader reader) {
+        try (reader) {
+            return parseConsumer(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static PerfTestReport parseConsumer(BufferedReader reader) throws IOException {
+        var samples = new ArrayList<Sample>();
+        LocalDateTime start = null;
+        var firstRecords = 0L;
+        var firstMegabytes = 0.0;
+        var records = 0L;
+        var megabytes = 0.0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            var columns = line.strip().split("\\s*,\\s*");
+            if (columns.length < 6) {
+                continue;
+            }
+
+            LocalDateTime time;
+            try {
+                time = LocalDateTime.parse(columns[0], CONSUMER_TIME_FORMAT);
+            } catch (DateTimeParseException e) {
+                // header or other output
+                continue;
+            }
+            megabytes = Double.parseDouble(columns[2]);
+            records = Long.parseLong(columns[4]);
+            if (start == null) {
+                start = time;
+                firstRecords = records;
+                firstMegabytes = megabytes;
+            }
+            samples.add(new Sample(
+                Duration.between(start, time),
+                records,
+                Double.parseDouble(columns[5]),
+                Double.parseDouble(columns[3]),
+                Double.NaN,
+                Double.NaN));
+        }
+
+        // the columns are cumulative, therefore the average throughput is computed on the time between the first
+        // and the last interval
+        var seconds = samples.isEmpty() ? 0 : samples.get(samples.size() - 1).getElapsed().toMillis() / 1000.0;
+        var recordsPerSecond = seconds > 0 ? (records - firstRecords) / seconds : 0;
+        var megabytesPerSecond = seconds > 0 ? (megabytes - firstMegabytes) / seconds : 0;
+
+        var nan = new double[] {Double.NaN, Double.NaN, Double.NaN, Double.NaN};
+        return new PerfTestReport(samples, records, recordsPerSecond, megabytesPerSecond, Double.NaN, Double.NaN, nan);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+            "%d records, %.1f records/s, %.2f MB/s, latency avg/max: %.1f/%.1f ms, p50/p95/p99/p99.9: %.0f/%.0f/%.0f/%.0f ms",
+            records, recordsPerSecond, megabytesPerSecond, avgLatency, maxLatency, latencyP50, latencyP95, latencyP99, latencyP999);
+    }
+
+    /**
+     * One periodic line of the perf test tools
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Sample {
+        // end of the interval since the start of the test
+        private final Duration elapsed;
+        // records in the interval for the producer or since the start for the consumer
+        private final long records;
+        private final double recordsPerSecond;
+        private final double megabytesPerSecond;
+        private final double avgLatency;
+        private final double maxLatency;
+    }
+}
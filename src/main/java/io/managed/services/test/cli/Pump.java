@@ -0,0 +1,134 @@
+package io.managed.services.test.cli;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Continuously drain a stream of a process into one or more {@link OutputCapture} until the end of the stream,
+ * so that the process never blocks on a full pipe and no output is lost when the process exits, and emit each
+ * complete line to the listeners with the time it has been read. The lines longer than MAX_LINE_LENGTH are emitted
+ * in pieces so that an output without new lines can't grow the pending line without limit.
+ * <p>
+ * The pump runs on a virtual thread when the runtime supports them, otherwise on a platform daemon thread.
+ */
+@Log4j2
+class Pump implements Runnable {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private final String name;
+    private final InputStream source;
+    private final OutputCapture[] captures;
+    private final List<Consumer<OutputLine>> listeners;
+
+    // bytes of the current line not yet terminated by a new line
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    Pump(String name, InputStream source, List<Consumer<OutputLine>> listeners, OutputCapture... captures) {
+        this.name = name;
+        this.source = source;
+        this.listeners = listeners;
+        this.captures = captures;
+    }
+
+    Thread start() {
+        var thread = newThread(this, "pump-" + name);
+        thread.start();
+        return thread;
+    }
+
+    @Override
+    public void run() {
+        var buffer = new byte[BUFFER_SIZE];
+        try {
+            int n;
+            while ((n = source.read(buffer)) != -1) {
+                for (OutputStream capture : captures) {
+                    capture.write(buffer, 0, n);
+                }
+                emitLines(buffer, n);
+            }
+        } catch (IOException e) {
+            // the stream is closed when the process is destroyed
+            log.debug("stop pumping {}: {}", name, e.getMessage());
+        } finally {
+            if (line.size() > 0) {
+                emit();
+            }
+            for (var capture : captures) {
+                capture.finish();
+            }
+        }
+    }
+
+    private void emitLines(byte[] buffer, int len) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        var start = 0;
+        for (var i = 0; i < len; i++) {
+            if (buffer[i] == '\n') {
+                append(buffer, start, i - start);
+                emit();
+                start = i + 1;
+            }
+        }
+        append(buffer, start, len - start);
+    }
+
+    private void append(byte[] buffer, int off, int len) {
+        while (line.size() + len > MAX_LINE_LENGTH) {
+            var n = MAX_LINE_LENGTH - line.size();
+            line.write(buffer, off, n);
+            emit();
+            off += n;
+            len -= n;
+        }
+        line.write(buffer, off, len);
+    }
+
+    private void emit() {
+        var text = line.toString(StandardCharsets.UTF_8);
+        line.reset();
+        if (text.endsWith("\r")) {
+            text = text.substring(0, text.length() - 1);
+        }
+
+        var event = new OutputLine(name, Instant.now(), text);
+        for (var listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.error("output line listener failed: ", e);
+            }
+        }
+    }
+
+    /**
+     * Create a virtual thread using reflection because the project targets a runtime without them
+     */
+    private static Thread newThread(Runnable task, String name) {
+        try {
+            var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            var type = Class.forName("java.lang.Thread$Builder");
+            builder = type.getMethod("name", String.class).invoke(builder, name);
+            return (Thread) type.getMethod("unstarted", Runnable.class).invoke(builder, task);
+        } catch (NoSuchMethodException | ClassNotFoundException | IllegalAccessException
+            | InvocationTargetException | UnsupportedOperationException e) {
+
+            var thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
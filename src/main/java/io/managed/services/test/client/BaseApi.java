@@ -5,17 +5,36 @@ import io.managed.services.test.RetryUtils;
 import io.managed.services.test.ThrowingSupplier;
 import io.managed.services.test.ThrowingVoid;
 import io.managed.services.test.client.exception.ApiGenericException;
+import io.managed.services.test.client.exception.ApiToManyRequestsException;
+import io.managed.services.test.client.exception.HttpTooManyRequestsException;
+import io.managed.services.test.retry.RetryPolicy;
 import lombok.extern.log4j.Log4j2;
 
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
 @Log4j2
 public abstract class BaseApi {
 
+    private static final RetryPolicy RETRY_POLICY = RetryPolicy.DEFAULT.withCondition(BaseApi::retryCondition);
+
     private String defaultSSOUrl = Environment.REDHAT_SSO_URI + "/auth/realms/" + Environment.REDHAT_SSO_REALM + "/protocol/openid-connect/token";
 
     private final String url;
 
+    private final RateLimiter rateLimiter;
+
     protected BaseApi() {
+        this(null);
+    }
+
+    /**
+     * @param group The endpoint group used to share the client side rate limit between the API clients
+     *              or null to not limit the requests
+     */
+    protected BaseApi(String group) {
         this.url = defaultSSOUrl;
+        this.rateLimiter = group == null ? null : RateLimiter.of(group);
     }
 
     /**
@@ -31,6 +50,10 @@ public abstract class BaseApi {
             throw e;
         } catch (Exception e) {
             log.info(e);
+            var tooManyRequests = findCause(e, HttpTooManyRequestsException.class);
+            if (tooManyRequests != null) {
+                throw tooManyRequests.toApiException();
+            }
             var ex = toApiException(e);
             if (ex != null) {
                 log.info(ex);
@@ -41,28 +64,44 @@ public abstract class BaseApi {
     }
 
     private <A> A handle(ThrowingSupplier<A, Exception> f) throws ApiGenericException {
+        if (rateLimiter != null) {
+            rateLimiter.acquire();
+        }
         return handleException(f);
     }
 
     protected <A> A retry(ThrowingSupplier<A, Exception> f) throws ApiGenericException {
-        return RetryUtils.retry(1, () -> handle(f), BaseApi::retryCondition);
+        return RetryUtils.retry(1, () -> handle(f), RETRY_POLICY);
     }
 
     protected void retry(ThrowingVoid<Exception> f) throws ApiGenericException {
-        RetryUtils.retry(1, () -> handle(f.toSupplier()), BaseApi::retryCondition);
+        RetryUtils.retry(1, () -> handle(f.toSupplier()), RETRY_POLICY);
     }
 
     private static boolean retryCondition(Throwable t) {
+        if (t instanceof ApiToManyRequestsException) {
+            return true;
+        }
         if (t instanceof ApiGenericException) {
             var code = ((ApiGenericException) t).getResponseStatusCode();
             return code >= 500 && code < 600 // Server Errors
                 || code == 408;  // Request Timeout
         }
-        if (t instanceof RuntimeException) {
-            // retry generic runtime exception
+        if (t instanceof RuntimeException
+            && (findCause(t, IOException.class) != null || findCause(t, TimeoutException.class) != null)) {
+            // retry only network errors and timeouts, any other runtime exception is a bug which will not go away
             return true;
         }
         log.warn("not going to retry exception:", t);
         return false;
     }
+
+    private static <T extends Throwable> T findCause(Throwable t, Class<T> type) {
+        for (var c = t; c != null; c = c.getCause()) {
+            if (type.isInstance(c)) {
+                return type.cast(c);
+            }
+        }
+        return null;
+    }
 }
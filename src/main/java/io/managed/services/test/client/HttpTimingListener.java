@@ -0,0 +1,110 @@
+package io.managed.services.test.client;
+
+import io.managed.services.test.Environment;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * Record the time spent by each call of the shared HTTP client in DNS resolution, connection, TLS handshake,
+ * waiting for the first byte and in total, plus how often a pooled connection is reused.
+ */
+public class HttpTimingListener extends EventListener {
+
+    public static final EventListener.Factory FACTORY = HttpTimingListener::new;
+
+    private static final Histogram PHASES = Histogram.build()
+        .name("test_http_phase_duration_seconds")
+        .labelNames("launch", "host", "phase")
+        .buckets(0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10)
+        .help("Duration of the HTTP call phases of the shared API client.").register();
+
+    private static final Counter CONNECTIONS = Counter.build()
+        .name("test_http_connections")
+        .labelNames("launch", "host", "type")
+        .help("Connections acquired by the shared API client by type (new or reused).").register();
+
+    private final String host;
+    private final long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestStart;
+    private boolean connected = false;
+
+    private HttpTimingListener(Call call) {
+        this.host = call.request().url().host();
+        this.callStart = System.nanoTime();
+    }
+
+    private void observe(String phase, long start) {
+        PHASES.labels(Environment.LAUNCH_KEY, host, phase).observe((System.nanoTime() - start) / 1e9);
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        observe("dns", dnsStart);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+        connected = true;
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        observe("tls", secureConnectStart);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        observe("connect", connectStart);
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        CONNECTIONS.labels(Environment.LAUNCH_KEY, host, connected ? "new" : "reused").inc();
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        observe("first_byte", requestStart);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        observe("call", callStart);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        observe("call_failed", callStart);
+    }
+}
@@ -0,0 +1,62 @@
+package io.managed.services.test.client;
+
+import com.microsoft.kiota.authentication.BaseBearerTokenAuthenticationProvider;
+import com.microsoft.kiota.http.KiotaClientFactory;
+import com.microsoft.kiota.http.OkHttpRequestAdapter;
+import io.managed.services.test.Environment;
+import io.managed.services.test.client.oauth.CachedAccessTokenProvider;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class KiotaUtils {
+
+    // one client for the whole JVM so that all the API clients share the same connection pool and dispatcher
+    private static final OkHttpClient HTTP_CLIENT = createHttpClient();
+
+    /**
+     * Create the Kiota RequestAdapter used by all the API clients authenticated with the offline token.
+     *
+     * @param uri          The API base URL
+     * @param offlineToken The user offline token
+     * @return OkHttpRequestAdapter
+     */
+    public static OkHttpRequestAdapter requestAdapter(String uri, String offlineToken) {
+        var auth = new BaseBearerTokenAuthenticationProvider(new CachedAccessTokenProvider(offlineToken));
+        var adapter = new OkHttpRequestAdapter(auth, null, null, HTTP_CLIENT);
+        adapter.setBaseUrl(uri);
+        return adapter;
+    }
+
+    /**
+     * @return The OkHttpClient shared by all the Kiota API clients
+     */
+    public static OkHttpClient httpClient() {
+        return HTTP_CLIENT;
+    }
+
+    private static OkHttpClient createHttpClient() {
+        var dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(Environment.HTTP_MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(Environment.HTTP_MAX_REQUESTS_PER_HOST);
+
+        var pool = new ConnectionPool(
+            Environment.HTTP_MAX_IDLE_CONNECTIONS, Environment.HTTP_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+
+        var protocols = Environment.HTTP2_ENABLED
+            ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+            : List.of(Protocol.HTTP_1_1);
+
+        return KiotaClientFactory.Create()
+            .dispatcher(dispatcher)
+            .connectionPool(pool)
+            .protocols(protocols)
+            .eventListenerFactory(HttpTimingListener.FACTORY)
+            .addInterceptor(new RetryAfterInterceptor())
+            .build();
+    }
+}
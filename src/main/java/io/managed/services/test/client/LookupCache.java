@@ -0,0 +1,134 @@
+package io.managed.services.test.client;
+
+import io.managed.services.test.Environment;
+import io.managed.services.test.ThrowingSupplier;
+import io.prometheus.client.Counter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short TTL read-through cache for the lookups by name performed by the tests setup and teardown.
+ * <p>
+ * Each API client owns its caches and invalidates them every time it creates, updates or deletes a resource, so
+ * that the changes performed by the same client are always visible, while the changes performed by anybody else
+ * are visible after at most NAME_LOOKUP_CACHE_TTL_SECONDS.
+ * <p>
+ * The keys are trimmed, and a value loaded while an invalidation happens is returned but not cached because it
+ * could have been read before the change.
+ *
+ * @param <T> The lookup result
+ */
+public class LookupCache<T> {
+
+    private static final Counter REQUESTS = Counter.build()
+        .name("test_lookup_cache_requests")
+        .labelNames("launch", "cache", "result")
+        .help("Lookup cache requests by result (hit, miss or invalidation).").register();
+
+    private final String name;
+    private final Duration ttl;
+    private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+
+    // incremented by every invalidation to discard the loads started before it
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public LookupCache(String name) {
+        this(name, Duration.ofSeconds(Environment.NAME_LOOKUP_CACHE_TTL_SECONDS));
+    }
+
+    public LookupCache(String name, Duration ttl) {
+        this.name = name;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Return the cached value for the key or load it with the loader if missing or expired.
+     * Failures are never cached.
+     */
+    public <E extends Throwable> T get(String key, ThrowingSupplier<T, E> loader) throws E {
+        if (ttl.isZero() || ttl.isNegative()) {
+            return loader.get();
+        }
+
+        var k = key(key);
+        var entry = entries.get(k);
+        if (entry != null && System.nanoTime() < entry.expiresAt) {
+            hits.incrementAndGet();
+            REQUESTS.labels(Environment.LAUNCH_KEY, name, "hit").inc();
+            return entry.value;
+        }
+
+        misses.incrementAndGet();
+        REQUESTS.labels(Environment.LAUNCH_KEY, name, "miss").inc();
+
+        var g = generation.get();
+        var value = loader.get();
+
+        var loaded = new Entry<>(value, System.nanoTime() + ttl.toNanos());
+        entries.put(k, loaded);
+        if (generation.get() != g) {
+            // an invalidation happened during the load, and it may have already run its remove before the put
+            entries.remove(k, loaded);
+        }
+        return value;
+    }
+
+    public void invalidate(String key) {
+        generation.incrementAndGet();
+        if (entries.remove(key(key)) != null) {
+            onInvalidation();
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        if (!entries.isEmpty()) {
+            entries.clear();
+            onInvalidation();
+        }
+    }
+
+    private static String key(String key) {
+        return key == null ? "" : key.trim();
+    }
+
+    private void onInvalidation() {
+        invalidations.incrementAndGet();
+        REQUESTS.labels(Environment.LAUNCH_KEY, name, "invalidation").inc();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: hits=%d misses=%d invalidations=%d size=%d",
+            name, getHits(), getMisses(), getInvalidations(), entries.size());
+    }
+
+    private static class Entry<T> {
+        private final T value;
+        private final long expiresAt;
+
+        Entry(T value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
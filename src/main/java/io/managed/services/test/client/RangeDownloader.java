@@ -0,0 +1,304 @@
+package io.managed.services.test.client;
+
+import io.managed.services.test.Environment;
+import io.managed.services.test.retry.RetryPolicy;
+import lombok.extern.log4j.Log4j2;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Download large files splitting them in HTTP Range chunks that are fetched in parallel over multiple
+ * connections and written with positional writes in a temporary file.
+ * <p>
+ * A chunk interrupted by a network error is resumed from the last received byte, after the backoff of the retry
+ * policy, instead of restarting the whole download, and the content can be consumed as a stream while the following chunks are still downloading. When the
+ * server doesn't support ranges the file is downloaded over a single connection.
+ */
+@Log4j2
+public class RangeDownloader {
+
+    private static final OkHttpClient HTTP_CLIENT = new OkHttpClient.Builder()
+        // with HTTP/2 all the chunks would be multiplexed on the same connection
+        .protocols(List.of(Protocol.HTTP_1_1))
+        .connectTimeout(60, TimeUnit.SECONDS)
+        .readTimeout(60, TimeUnit.SECONDS)
+        .build();
+
+    private static final int HTTP_PARTIAL_CONTENT = 206;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // max time a read waits for the next bytes, the chunks already retry the network errors on their own
+    private static final Duration STALL_TIMEOUT = Duration.ofMinutes(5);
+
+    private final int chunkSize;
+    private final int parallelism;
+    private final int attempts;
+
+    // only the backoff is used, the attempts are counted by the downloader
+    private final RetryPolicy retryPolicy;
+
+    public RangeDownloader(int chunkSize, int parallelism, int attempts) {
+        this(chunkSize, parallelism, attempts, RetryPolicy.DEFAULT);
+    }
+
+    RangeDownloader(int chunkSize, int parallelism, int attempts, RetryPolicy retryPolicy) {
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.attempts = attempts;
+        this.retryPolicy = retryPolicy;
+    }
+
+    public static RangeDownloader defaultDownloader() {
+        return new RangeDownloader(
+            Environment.DOWNLOAD_CHUNK_SIZE,
+            Environment.DOWNLOAD_PARALLELISM,
+            Environment.DOWNLOAD_CHUNK_ATTEMPTS);
+    }
+
+    /**
+     * Start the download and return the content as a stream, closing the stream stops the download
+     */
+    public InputStream open(String url) throws IOException {
+        var first = fetch(url, 0, chunkSize - 1);
+        if (first.code() != HTTP_PARTIAL_CONTENT) {
+            log.info("download {} over a single connection (status: {})", url, first.code());
+            return first.body().byteStream();
+        }
+
+        var size = parseSize(first.header("Content-Range"));
+        if (size <= chunkSize) {
+            return first.body().byteStream();
+        }
+
+        log.info("download {} bytes from {} in chunks of {} bytes", size, url, chunkSize);
+        return new Download(url, size, first);
+    }
+
+    private static Response fetch(String url, long from, long to) throws IOException {
+        var request = new Request.Builder()
+            .url(url)
+            .header("Range", String.format("bytes=%d-%d", from, to))
+            .build();
+        var response = HTTP_CLIENT.newCall(request).execute();
+        if (!response.isSuccessful()) {
+            response.close();
+            throw new IOException(String.format("GET %s (bytes %d-%d) failed with status %d", url, from, to, response.code()));
+        }
+        return response;
+    }
+
+    /**
+     * @param contentRange the header in the format: bytes {from}-{to}/{size}
+     */
+    private static long parseSize(String contentRange) throws IOException {
+        if (contentRange == null || contentRange.endsWith("/*")) {
+            throw new IOException("unknown content size in range: " + contentRange);
+        }
+        return Long.parseLong(contentRange.substring(contentRange.lastIndexOf('/') + 1).strip());
+    }
+
+    private class Download extends InputStream {
+
+        private final String url;
+        private final long size;
+        private final Path file;
+        private final FileChannel channel;
+        private final ExecutorService executor;
+
+        // bytes received for each chunk
+        private final long[] received;
+
+        private IOException failure;
+        private boolean closed = false;
+        private long position = 0;
+
+        Download(String url, long size, Response first) throws IOException {
+            this.url = url;
+            this.size = size;
+            this.file = Files.createTempFile("download-", ".part");
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.received = new long[(int) ((size + chunkSize - 1) / chunkSize)];
+
+            this.executor = Executors.newFixedThreadPool(parallelism, r -> {
+                var thread = new Thread(r, "download-chunk");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            executor.submit(() -> downloadChunk(0, first));
+            for (var i = 1; i < received.length; i++) {
+                var chunk = i;
+                executor.submit(() -> downloadChunk(chunk, null));
+            }
+            executor.shutdown();
+        }
+
+        private long chunkLength(int chunk) {
+            return Math.min(chunkSize, size - (long) chunk * chunkSize);
+        }
+
+        private void downloadChunk(int chunk, Response response) {
+            var start = (long) chunk * chunkSize;
+            var length = chunkLength(chunk);
+
+            var attempt = 1;
+            while (true) {
+                try {
+                    if (response == null) {
+                        response = fetch(url, start + receivedOf(chunk), start + length - 1);
+                    }
+                    if (response.code() != HTTP_PARTIAL_CONTENT) {
+                        throw new IOException("unexpected status " + response.code() + " for a range request");
+                    }
+
+                    copy(chunk, response.body().byteStream(), start, length);
+                    return;
+
+                } catch (RuntimeException e) {
+                    // the future of the task is not observed, therefore the failure must reach the reader here
+                    fail(new IOException(String.format("chunk %d of %s failed", chunk, url), e));
+                    return;
+                } catch (IOException e) {
+                    if (attempt >= attempts || isClosed()) {
+                        fail(e);
+                        return;
+                    }
+                    log.warn("resume chunk {} of {} at byte {} (attempt {}): {}",
+                        chunk, url, receivedOf(chunk), attempt, e.toString());
+                    attempt++;
+                } finally {
+                    if (response != null) {
+                        response.close();
+                        response = null;
+                    }
+                }
+
+                // back off before resuming so that a server dropping the connections is not hit again right away
+                try {
+                    Thread.sleep(retryPolicy.backoff(attempt - 2, null).toMillis());
+                } catch (InterruptedException e) {
+                    // the download has been closed
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private void copy(int chunk, InputStream body, long start, long length) throws IOException {
+            var buffer = new byte[BUFFER_SIZE];
+            while (receivedOf(chunk) < length) {
+                var n = body.read(buffer, 0, (int) Math.min(buffer.length, length - receivedOf(chunk)));
+                if (n == -1) {
+                    throw new EOFException(String.format("chunk %d ended after %d of %d bytes", chunk, receivedOf(chunk), length));
+                }
+                if (isClosed()) {
+                    return;
+                }
+
+                var bytes = ByteBuffer.wrap(buffer, 0, n);
+                var offset = start + receivedOf(chunk);
+                while (bytes.hasRemaining()) {
+                    offset += channel.write(bytes, offset);
+                }
+
+                synchronized (this) {
+                    received[chunk] += n;
+                    notifyAll();
+                }
+            }
+        }
+
+        private synchronized long receivedOf(int chunk) {
+            return received[chunk];
+        }
+
+        private synchronized boolean isClosed() {
+            return closed;
+        }
+
+        private synchronized void fail(IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+            notifyAll();
+        }
+
+        @Override
+        public int read() throws IOException {
+            var b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= size) {
+                return -1;
+            }
+
+            var chunk = (int) (position / chunkSize);
+            var offset = position - (long) chunk * chunkSize;
+            long available;
+            synchronized (this) {
+                try {
+                    var deadline = System.nanoTime() + STALL_TIMEOUT.toNanos();
+                    while (received[chunk] <= offset && failure == null && !closed) {
+                        var left = deadline - System.nanoTime();
+                        if (left <= 0) {
+                            throw new IOException(String.format("no data received for chunk %d of %s in %s",
+                                chunk, url, STALL_TIMEOUT));
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, left);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+                if (closed) {
+                    throw new IOException("the download is closed");
+                }
+                if (received[chunk] <= offset) {
+                    throw failure;
+                }
+                available = received[chunk] - offset;
+            }
+
+            var n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, available)), position);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                notifyAll();
+            }
+            executor.shutdownNow();
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.managed.services.test.client;
+
+import io.managed.services.test.Environment;
+import io.prometheus.client.Histogram;
+import lombok.SneakyThrows;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Client side token bucket shared by all the API clients of the same endpoint group.
+ * <p>
+ * The bucket is refilled at API_RATE_LIMIT requests per second (or the group value in API_RATE_LIMIT_GROUPS)
+ * and can hold up to one second of requests. Callers that find the bucket empty reserve the next free token
+ * and wait for it, so concurrent callers are served in order without exceeding the rate.
+ */
+@Log4j2
+public class RateLimiter {
+
+    private static final Histogram DELAY = Histogram.build()
+        .name("test_rate_limiter_delay_seconds")
+        .labelNames("launch", "group")
+        .buckets(0.001, 0.01, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30)
+        .help("Time spent waiting for the client side rate limiter before sending a request.").register();
+
+    private static final Map<String, Double> GROUP_RATES = parseGroupRates(Environment.API_RATE_LIMIT_GROUPS);
+    private static final Map<String, RateLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private final String group;
+    private final double permitsPerSecond;
+    private final double capacity;
+
+    private double tokens;
+    private long lastRefill;
+
+    private RateLimiter(String group, double permitsPerSecond) {
+        this.group = group;
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = Math.max(1, permitsPerSecond);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * @param group The endpoint group shared by all API clients that are subject to the same server rate limit
+     * @return the RateLimiter for the group
+     */
+    public static RateLimiter of(String group) {
+        return LIMITERS.computeIfAbsent(group, g -> {
+            var rate = GROUP_RATES.getOrDefault(g, Environment.API_RATE_LIMIT);
+            log.debug("rate limit for '{}' set to {} requests per second", g, rate);
+            return new RateLimiter(g, rate);
+        });
+    }
+
+    /**
+     * Block until a request can be sent without exceeding the rate limit, return immediately if the rate limit is
+     * disabled (less or equal to 0).
+     */
+    @SneakyThrows
+    public void acquire() {
+        if (permitsPerSecond <= 0) {
+            return;
+        }
+
+        long wait;
+        synchronized (this) {
+            var now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) / 1e9 * permitsPerSecond);
+            lastRefill = now;
+
+            // a negative amount of tokens means that they are already reserved by other waiting callers
+            tokens -= 1;
+            wait = tokens < 0 ? (long) (-tokens / permitsPerSecond * 1e9) : 0;
+        }
+
+        if (wait > 0) {
+            log.debug("wait {}ms for the '{}' rate limiter", TimeUnit.NANOSECONDS.toMillis(wait), group);
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        DELAY.labels(Environment.LAUNCH_KEY, group).observe(wait / 1e9);
+    }
+
+    private static Map<String, Double> parseGroupRates(String value) {
+        if (value == null || value.isBlank()) {
+            return Map.of();
+        }
+
+        // ex: kafka-mgmt=5,security-mgmt=2.5
+        return Arrays.stream(value.split(","))
+            .map(String::trim)
+            .filter(e -> !e.isEmpty())
+            .map(e -> e.split("=", 2))
+            .collect(Collectors.toMap(e -> e[0].trim(), e -> Double.parseDouble(e[1].trim())));
+    }
+}
@@ -0,0 +1,66 @@
+package io.managed.services.test.client;
+
+import io.managed.services.test.client.exception.HttpTooManyRequestsException;
+import lombok.extern.log4j.Log4j2;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Replace 429 Too Many Requests responses with a {@link HttpTooManyRequestsException} that carries the
+ * Retry-After hint returned by the server.
+ */
+@Log4j2
+public class RetryAfterInterceptor implements Interceptor {
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        var request = chain.request();
+        var response = chain.proceed(request);
+        if (response.code() != HTTP_TOO_MANY_REQUESTS) {
+            return response;
+        }
+
+        var retryAfter = parseRetryAfter(response.header("Retry-After"));
+        String body;
+        try (response) {
+            body = response.body() == null ? "" : response.body().string();
+        }
+        throw new HttpTooManyRequestsException(
+            String.format("%s %s: too many requests (retry after: %s)\n%s", request.method(), request.url(), retryAfter, body),
+            retryAfter);
+    }
+
+    /**
+     * @param value The Retry-After header in delay-seconds or HTTP-date format
+     * @return The duration to wait or null if the value is missing or invalid
+     */
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            // not in delay-seconds format
+        }
+
+        try {
+            var date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            var delay = Duration.between(Instant.now(), date.toInstant());
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            log.warn("invalid Retry-After header '{}'", value);
+            return null;
+        }
+    }
+}
@@ -1,7 +1,25 @@
 package io.managed.services.test.client.exception;
 
+import java.time.Duration;
+import java.util.Optional;
+
 public class ApiToManyRequestsException extends ApiGenericException {
+
+    private final Duration retryAfter;
+
     public ApiToManyRequestsException(ApiGenericException e) {
+        this(e, null);
+    }
+
+    public ApiToManyRequestsException(ApiGenericException e, Duration retryAfter) {
         super(e);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return the time the server asked to wait before retrying the request with the Retry-After header
+     */
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
     }
 }
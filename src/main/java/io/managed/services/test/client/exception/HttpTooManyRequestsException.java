@@ -0,0 +1,24 @@
+package io.managed.services.test.client.exception;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Thrown by the {@link io.managed.services.test.client.RetryAfterInterceptor} in place of the 429 response,
+ * so that the Retry-After header reaches the {@link io.managed.services.test.client.BaseApi} which would
+ * otherwise only see the deserialized error.
+ */
+public class HttpTooManyRequestsException extends IOException {
+
+    private final Duration retryAfter;
+
+    public HttpTooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public ApiToManyRequestsException toApiException() {
+        var e = new ApiGenericException(getMessage(), "", 429, "", "", this);
+        return new ApiToManyRequestsException(e, retryAfter);
+    }
+}
@@ -1,11 +1,13 @@
 package io.managed.services.test.client.github;
 
+import io.managed.services.test.client.RangeDownloader;
 import io.managed.services.test.client.exception.ClientException;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.Response;
 import org.apache.http.HttpHeaders;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Locale;
@@ -57,7 +59,10 @@ public class GitHub implements AutoCloseable {
         return github.path(path).request().get(Release.class);
     }
 
-    public InputStream downloadAsset(String org, String repo, String id) {
+    /**
+     * Download the asset in parallel chunks from the location GitHub redirects to
+     */
+    public InputStream downloadAsset(String org, String repo, String id) throws IOException {
         var path = String.format("/repos/%s/%s/releases/assets/%s", org, repo, id);
         var r = github.path(path).request("application/octet-stream").get();
 
@@ -69,7 +74,8 @@ public class GitHub implements AutoCloseable {
         if (l == null) {
             throw new ClientException("Location header not found", r);
         }
-        return client.target(l).request().get(InputStream.class);
+        r.close();
+        return RangeDownloader.defaultDownloader().open(l);
     }
 
     @Override
@@ -21,6 +21,8 @@ import org.apache.kafka.common.acl.AclBindingFilter;
 import org.apache.kafka.common.acl.AclOperation;
 import org.apache.kafka.common.acl.AclPermissionType;
 import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
 import org.apache.kafka.common.quota.ClientQuotaAlteration;
 import org.apache.kafka.common.quota.ClientQuotaEntity;
 import org.apache.kafka.common.quota.ClientQuotaFilter;
@@ -30,10 +32,12 @@ import org.apache.kafka.common.resource.ResourcePattern;
 import org.apache.kafka.common.resource.ResourcePatternFilter;
 import org.apache.kafka.common.resource.ResourceType;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -85,6 +89,46 @@ public class KafkaAdmin implements AutoCloseable {
         get(admin.createTopics(Collections.singleton(topic)).all());
     }
 
+    /**
+     * Create all topics with a single request and return the outcome of each topic, the topics that
+     * already exist are reported as unchanged.
+     */
+    public Map<String, TopicResult> createTopics(Collection<NewTopic> topics) {
+        var start = System.nanoTime();
+        return topicResults(start, admin.createTopics(topics).values(), TopicExistsException.class);
+    }
+
+    /**
+     * Delete all topics with a single request and return the outcome of each topic, the topics that
+     * don't exist are reported as unchanged.
+     */
+    public Map<String, TopicResult> deleteTopics(Collection<String> names) {
+        var start = System.nanoTime();
+        return topicResults(start, admin.deleteTopics(names).values(), UnknownTopicOrPartitionException.class);
+    }
+
+    @SneakyThrows
+    private Map<String, TopicResult> topicResults(
+        long start, Map<String, KafkaFuture<Void>> futures, Class<? extends Throwable> unchanged) {
+
+        var completions = Collections.synchronizedMap(new HashMap<String, Long>());
+        var results = new LinkedHashMap<String, TopicResult>();
+        for (var e : futures.entrySet()) {
+            var name = e.getKey();
+            var future = e.getValue().whenComplete((r, t) -> completions.put(name, System.nanoTime()));
+            try {
+                future.get();
+                results.put(name, TopicResult.changed(name, Duration.ofNanos(completions.get(name) - start)));
+            } catch (ExecutionException ex) {
+                var duration = Duration.ofNanos(completions.getOrDefault(name, System.nanoTime()) - start);
+                results.put(name, unchanged.isInstance(ex.getCause())
+                    ? TopicResult.unchanged(name, duration)
+                    : TopicResult.failed(name, duration, ex.getCause()));
+            }
+        }
+        return results;
+    }
+
     public Set<String> listTopics() {
         return get(admin.listTopics().names());
     }
@@ -0,0 +1,50 @@
+package io.managed.services.test.client.kafka;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+
+/**
+ * The outcome of a single topic in a bulk topic operation
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TopicResult {
+
+    private final String name;
+
+    /**
+     * False if the topic already existed when applying it or didn't exist when deleting it
+     */
+    private final boolean changed;
+
+    private final Duration duration;
+
+    @Nullable
+    private final Throwable error;
+
+    public static TopicResult changed(String name, Duration duration) {
+        return new TopicResult(name, true, duration, null);
+    }
+
+    public static TopicResult unchanged(String name, Duration duration) {
+        return new TopicResult(name, false, duration, null);
+    }
+
+    public static TopicResult failed(String name, Duration duration, Throwable error) {
+        return new TopicResult(name, false, duration, error);
+    }
+
+    public boolean isSucceeded() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        var outcome = error != null ? "failed: " + error.getMessage() : changed ? "changed" : "unchanged";
+        return String.format("%s %s in %dms", name, outcome, duration.toMillis());
+    }
+}
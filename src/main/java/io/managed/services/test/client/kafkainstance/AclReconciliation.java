@@ -0,0 +1,31 @@
+package io.managed.services.test.client.kafkainstance;
+
+import com.openshift.cloud.api.kas.auth.models.AclBinding;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The result of {@link KafkaInstanceApiAccessUtils#resetACLsTo}
+ */
+@Getter
+@AllArgsConstructor
+public class AclReconciliation {
+
+    private final List<AclBinding> created;
+    private final List<AclBinding> deleted;
+    private final int unchanged;
+
+    private final Duration fetchDuration;
+    private final Duration diffDuration;
+    private final Duration applyDuration;
+
+    @Override
+    public String toString() {
+        return String.format("created=%d deleted=%d unchanged=%d fetch=%dms diff=%dms apply=%dms",
+            created.size(), deleted.size(), unchanged,
+            fetchDuration.toMillis(), diffDuration.toMillis(), applyDuration.toMillis());
+    }
+}
@@ -9,39 +9,105 @@ import com.openshift.cloud.api.kas.models.ServiceAccount;
 import io.managed.services.test.client.exception.ApiGenericException;
 import lombok.extern.log4j.Log4j2;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static io.managed.services.test.TestUtils.mapInParallel;
 
 @Log4j2
 public class KafkaInstanceApiAccessUtils {
 
+    private static final int ACLS_PAGE_SIZE = 100;
+    private static final int DEFAULT_ACLS_PARALLELISM = 8;
+
     /**
      * Reset all ACLs to de desired stated provided by the desiredACLs param.
      *
      * @param api           KafkaInstanceApi
      * @param desiredACLs   The list of desired ACLs that will be created if they don't exist, and any other
      *                      ACLs will be deleted
+     * @return what has been changed and how long each phase took
+     */
+    public static AclReconciliation resetACLsTo(KafkaInstanceApi api, List<AclBinding> desiredACLs) throws ApiGenericException {
+        return resetACLsTo(api, desiredACLs, DEFAULT_ACLS_PARALLELISM);
+    }
+
+    /**
+     * Reset all ACLs to de desired stated provided by the desiredACLs param creating and deleting
+     * at most parallelism ACLs at the same time. Each request is retried by the KafkaInstanceApi.
+     *
+     * @param api           KafkaInstanceApi
+     * @param desiredACLs   The list of desired ACLs that will be created if they don't exist, and any other
+     *                      ACLs will be deleted
+     * @param parallelism   The max number of concurrent requests
+     * @return what has been changed and how long each phase took
      */
-    public static void resetACLsTo(KafkaInstanceApi api, List<AclBinding> desiredACLs) throws ApiGenericException {
-        // get difference of ACLs that are default from ACLs that are currently present
+    public static AclReconciliation resetACLsTo(KafkaInstanceApi api, List<AclBinding> desiredACLs, int parallelism)
+        throws ApiGenericException {
+
+        var start = System.nanoTime();
         var currentACLs = getAllACLs(api);
+        var fetched = System.nanoTime();
 
-        // create the missing ACLs
-        for (var desireACL : desiredACLs) {
+        // index the current ACLs so that each desired ACL can be matched in constant time, the key is used instead
+        // of the AclBinding itself because the generated model doesn't guarantee equals and hashCode
+        var current = new LinkedHashMap<String, AclBinding>();
+        for (var acl : currentACLs) {
+            current.put(aclKey(acl), acl);
+        }
 
-            // Remove the desired ACL from the list of current ACLs,
-            // if it was removed successfully move on to the next desired ACLs
-            // because it means that the desired ACL already exist on the
-            // Kafka instance, and that we want to keep it because after
-            // checking all desired ACLs the remaining current ACLs will be deleted.
-            if (!currentACLs.remove(desireACL)) {
-                api.createAcl(desireACL);
+        var toCreate = new ArrayList<AclBinding>();
+        var desiredKeys = new HashSet<String>();
+        for (var acl : desiredACLs) {
+            var key = aclKey(acl);
+            if (desiredKeys.add(key) && !current.containsKey(key)) {
+                toCreate.add(acl);
             }
         }
 
-        // remove extra ACLs one by one
-        for (var currentACL  : currentACLs) {
-            deleteACL(api, currentACL);
-        }
+        var toDelete = current.entrySet().stream()
+            .filter(e -> !desiredKeys.contains(e.getKey()))
+            .map(Map.Entry::getValue)
+            .collect(Collectors.toList());
+        var diffed = System.nanoTime();
+
+        log.info("reset ACLs: create {}, delete {}, keep {}",
+            toCreate.size(), toDelete.size(), current.size() - toDelete.size());
+
+        mapInParallel(toDelete, parallelism, acl -> {
+            deleteACL(api, acl);
+            return null;
+        });
+        mapInParallel(toCreate, parallelism, acl -> {
+            api.createAcl(acl);
+            return null;
+        });
+        var applied = System.nanoTime();
+
+        var result = new AclReconciliation(
+            toCreate,
+            toDelete,
+            current.size() - toDelete.size(),
+            Duration.ofNanos(fetched - start),
+            Duration.ofNanos(diffed - fetched),
+            Duration.ofNanos(applied - diffed));
+        log.info("ACLs reset completed: {}", result);
+        return result;
+    }
+
+    private static String aclKey(AclBinding acl) {
+        return String.join("|",
+            String.valueOf(acl.getResourceType()),
+            String.valueOf(acl.getPatternType()),
+            String.valueOf(acl.getResourceName()),
+            String.valueOf(acl.getPrincipal()),
+            String.valueOf(acl.getOperation()),
+            String.valueOf(acl.getPermission()));
     }
 
     public static void deleteACL(KafkaInstanceApi api, AclBinding aclBinding) throws ApiGenericException {
@@ -56,13 +122,29 @@ public class KafkaInstanceApiAccessUtils {
     }
 
     /**
-     * Return the current list of ACLs for the Kafka instance.
+     * Return the current list of ACLs for the Kafka instance fetching all pages.
      *
      * @param api KafkaInstanceApi
      * @return list of current ACLs for the Kafka instance
      */
     public static List<AclBinding> getAllACLs(KafkaInstanceApi api) throws ApiGenericException {
-        return api.getAcls(null, null, null, null, null, null, null, null, null, null).getItems();
+        var acls = new ArrayList<AclBinding>();
+        var page = 1;
+        while (true) {
+            var list = api.getAcls(null, null, null, null, null, null, page, ACLS_PAGE_SIZE, null, null);
+            var items = list.getItems();
+            if (items == null || items.isEmpty()) {
+                return acls;
+            }
+            acls.addAll(items);
+
+            // the server can cap the page size, therefore rely on the total when it's returned
+            var total = list.getTotal();
+            if (total != null ? acls.size() >= total : items.size() < ACLS_PAGE_SIZE) {
+                return acls;
+            }
+            page++;
+        }
     }
 
     /**
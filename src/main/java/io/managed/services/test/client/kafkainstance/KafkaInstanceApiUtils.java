@@ -1,22 +1,22 @@
 package io.managed.services.test.client.kafkainstance;
 
-import com.microsoft.kiota.authentication.BaseBearerTokenAuthenticationProvider;
-import com.microsoft.kiota.http.OkHttpRequestAdapter;
 import com.openshift.cloud.api.kas.auth.ApiClient;
 import com.openshift.cloud.api.kas.auth.models.ConsumerGroup;
 import com.openshift.cloud.api.kas.auth.models.NewTopicInput;
 import com.openshift.cloud.api.kas.auth.models.Topic;
 import com.openshift.cloud.api.kas.auth.models.TopicSettings;
 import com.openshift.cloud.api.kas.models.KafkaRequest;
-import com.redhat.cloud.kiota.auth.RHAccessTokenProvider;
 import io.managed.services.test.Environment;
 import io.managed.services.test.IsReady;
 import io.managed.services.test.ThrowingFunction;
 import io.managed.services.test.ThrowingSupplier;
+import io.managed.services.test.client.KiotaUtils;
+import io.managed.services.test.client.exception.ApiConflictException;
 import io.managed.services.test.client.exception.ApiGenericException;
 import io.managed.services.test.client.exception.ApiNotFoundException;
 import io.managed.services.test.client.kafka.KafkaAuthMethod;
 import io.managed.services.test.client.kafka.KafkaConsumerClient;
+import io.managed.services.test.client.kafka.TopicResult;
 import io.managed.services.test.wait.TReadyFunction;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
@@ -24,11 +24,16 @@ import lombok.extern.log4j.Log4j2;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.javatuples.Pair;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static io.managed.services.test.TestUtils.mapInParallel;
 import static io.managed.services.test.TestUtils.waitFor;
 import static java.time.Duration.ofMinutes;
 import static java.time.Duration.ofSeconds;
@@ -52,8 +57,7 @@ public class KafkaInstanceApiUtils {
     }
 
     public static KafkaInstanceApi kafkaInstanceApi(String uri, String offlineToken) {
-        var adapter = new OkHttpRequestAdapter(new BaseBearerTokenAuthenticationProvider(new RHAccessTokenProvider(offlineToken)));
-        adapter.setBaseUrl(uri);
+        var adapter = KiotaUtils.requestAdapter(uri, offlineToken);
         ApiClient client = new ApiClient(adapter);
 
         //  TODO: implement case for situation of insecure connection is necessary
@@ -181,6 +185,56 @@ public class KafkaInstanceApiUtils {
         }
     }
 
+    /**
+     * Create all topics that don't exist sending at most parallelism requests at the same time.
+     *
+     * @return the outcome of each topic by name, the topics that already exist are reported as unchanged
+     */
+    public static Map<String, TopicResult> applyTopics(KafkaInstanceApi api, List<NewTopicInput> payloads, int parallelism) {
+        var results = mapInParallel(payloads, parallelism, payload -> {
+            var start = System.nanoTime();
+            try {
+                var topic = api.createTopic(payload);
+                log.debug(topic);
+                return TopicResult.changed(payload.getName(), Duration.ofNanos(System.nanoTime() - start));
+            } catch (ApiConflictException e) {
+                return TopicResult.unchanged(payload.getName(), Duration.ofNanos(System.nanoTime() - start));
+            } catch (ApiGenericException e) {
+                return TopicResult.failed(payload.getName(), Duration.ofNanos(System.nanoTime() - start), e);
+            }
+        });
+        return logTopicResults("apply", results);
+    }
+
+    /**
+     * Delete all topics sending at most parallelism requests at the same time.
+     *
+     * @return the outcome of each topic by name, the topics that don't exist are reported as unchanged
+     */
+    public static Map<String, TopicResult> deleteTopics(KafkaInstanceApi api, List<String> names, int parallelism) {
+        var results = mapInParallel(names, parallelism, name -> {
+            var start = System.nanoTime();
+            try {
+                api.deleteTopic(name);
+                return TopicResult.changed(name, Duration.ofNanos(System.nanoTime() - start));
+            } catch (ApiNotFoundException e) {
+                return TopicResult.unchanged(name, Duration.ofNanos(System.nanoTime() - start));
+            } catch (ApiGenericException e) {
+                return TopicResult.failed(name, Duration.ofNanos(System.nanoTime() - start), e);
+            }
+        });
+        return logTopicResults("delete", results);
+    }
+
+    private static Map<String, TopicResult> logTopicResults(String operation, List<TopicResult> results) {
+        var map = new LinkedHashMap<String, TopicResult>();
+        for (var r : results) {
+            log.info("{} topic {}", operation, r);
+            map.put(r.getName(), r);
+        }
+        return map;
+    }
+
     public static Topic updateTopicPartition(KafkaInstanceApi api, String name, int partitions) throws ApiGenericException {
         TopicSettings topicSettings = new TopicSettings();
         topicSettings.setNumPartitions(partitions);
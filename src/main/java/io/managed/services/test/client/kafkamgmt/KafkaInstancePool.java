@@ -0,0 +1,395 @@
+package io.managed.services.test.client.kafkamgmt;
+
+import com.openshift.cloud.api.kas.auth.models.AclBinding;
+import com.openshift.cloud.api.kas.auth.models.Topic;
+import com.openshift.cloud.api.kas.models.KafkaRequest;
+import com.openshift.cloud.api.kas.models.KafkaRequestPayload;
+import io.managed.services.test.Environment;
+import io.managed.services.test.client.exception.ApiGenericException;
+import io.managed.services.test.client.kafkainstance.KafkaInstanceApi;
+import io.managed.services.test.client.kafkainstance.KafkaInstanceApiAccessUtils;
+import io.managed.services.test.client.kafkainstance.KafkaInstanceApiUtils;
+import io.prometheus.client.Counter;
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Pool of ready Kafka instances leased to the test classes so that a suite doesn't need to provision and delete
+ * a new instance for each class.
+ * <p>
+ * Each pooled instance is tagged with the options it has been created with (cloud provider, region, etc.) plus the
+ * tags passed by the first lease, and it's leased again only to requests with exactly the same tags. Between leases
+ * all topics and consumer groups are deleted and the ACLs are reset to the ones the instance had when created.
+ * <p>
+ * The pool owns at most KAFKA_POOL_SIZE instances per user, when the pool is full the idle instances with different
+ * tags are deleted to make room for new ones. With KAFKA_POOL_SIZE set to 0 the pool is disabled and each lease
+ * applies and cleans its own instance like {@link KafkaMgmtApiUtils#applyKafkaInstance} and
+ * {@link KafkaMgmtApiUtils#cleanKafkaInstance} do.
+ */
+@Log4j2
+public class KafkaInstancePool {
+
+    private static final Counter LEASES = Counter.build()
+        .name("test_kafka_pool_leases")
+        .labelNames("launch", "result")
+        .help("Kafka instance leases by result (reused, created or unpooled).").register();
+
+    private static final String NAME_PREFIX = "mk-e2e-pool-";
+    private static final int RESET_PARALLELISM = 8;
+    private static final Duration LEASE_TIMEOUT = Duration.ofHours(1);
+
+    // one pool for each user because the instances can be shared only by the same owner
+    private static final Map<String, KafkaInstancePool> POOLS = new ConcurrentHashMap<>();
+
+    private final KafkaMgmtApi api;
+    private final String offlineToken;
+    private final int size;
+
+    // guarded by this
+    private final List<Instance> instances = new ArrayList<>();
+    private int sequence = 0;
+
+    private final ExecutorService warmer = Executors.newCachedThreadPool(r -> {
+        var t = new Thread(r, "kafka-pool-warmer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    KafkaInstancePool(KafkaMgmtApi api, String offlineToken, int size) {
+        this.api = api;
+        this.offlineToken = offlineToken;
+        this.size = size;
+    }
+
+    /**
+     * @return the pool of the user, on first use the pool starts provisioning KAFKA_POOL_WARM_INSTANCES instances
+     *         with the default options in background
+     */
+    public static KafkaInstancePool of(String offlineToken) {
+        return POOLS.computeIfAbsent(offlineToken, t -> {
+            var pool = new KafkaInstancePool(
+                KafkaMgmtApiUtils.kafkaMgmtApi(Environment.OPENSHIFT_API_URI, t), t, Environment.KAFKA_POOL_SIZE);
+            pool.warmUp(Math.min(Environment.KAFKA_POOL_WARM_INSTANCES, Environment.KAFKA_POOL_SIZE));
+            return pool;
+        });
+    }
+
+    /**
+     * Delete all instances of all pools, it should be called only at the end of the run
+     */
+    public static void scaleDownAll() {
+        POOLS.values().forEach(KafkaInstancePool::scaleDown);
+    }
+
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    /**
+     * Lease a Kafka instance with the default options
+     *
+     * @param name The name of the instance if the pool is disabled
+     * @param tags Additional reuse constraints
+     */
+    public KafkaLease lease(String name, String... tags)
+        throws ApiGenericException, InterruptedException, TimeoutException, KafkaNotReadyException, KafkaClusterCapacityExhaustedException, KafkaUnknownHostsException, KafkaUnprovisionedException, KafkaNotDeletedException {
+
+        return lease(KafkaMgmtApiUtils.defaultKafkaInstance(name), Set.of(tags));
+    }
+
+    /**
+     * Lease a ready Kafka instance created with the payload options, the name of the payload is used only if the
+     * pool is disabled
+     *
+     * @param payload The options of the instance
+     * @param tags    Additional reuse constraints
+     */
+    public KafkaLease lease(KafkaRequestPayload payload, Set<String> tags)
+        throws ApiGenericException, InterruptedException, TimeoutException, KafkaNotReadyException, KafkaClusterCapacityExhaustedException, KafkaUnknownHostsException, KafkaUnprovisionedException, KafkaNotDeletedException {
+
+        var allTags = tagsOf(payload, tags);
+        if (!isEnabled()) {
+            LEASES.labels(Environment.LAUNCH_KEY, "unpooled").inc();
+            return new KafkaLease(this, KafkaMgmtApiUtils.applyKafkaInstance(api, payload), allTags);
+        }
+
+        var instance = acquire(allTags);
+        if (instance.kafka != null) {
+            log.info("lease pooled kafka instance '{}' with tags {}", instance.name, allTags);
+            LEASES.labels(Environment.LAUNCH_KEY, "reused").inc();
+            return new KafkaLease(this, instance.kafka, allTags);
+        }
+
+        try {
+            if (instance.evicted != null) {
+                log.info("delete idle kafka instance '{}' to make room for tags {}", instance.evicted.getName(), allTags);
+                api.deleteKafkaById(instance.evicted.getId(), true);
+                KafkaMgmtApiUtils.waitUntilKafkaIsDeleted(api, instance.evicted.getId());
+            }
+            provision(instance, copyOf(payload, instance.name));
+        } catch (Exception e) {
+            // the instance may have been created before the failure, delete it before freeing its slot
+            delete(instance);
+            remove(instance);
+            throw e;
+        }
+
+        LEASES.labels(Environment.LAUNCH_KEY, "created").inc();
+        return new KafkaLease(this, instance.kafka, allTags);
+    }
+
+    private synchronized Instance acquire(Set<String> tags) throws InterruptedException, TimeoutException {
+        var deadline = System.currentTimeMillis() + LEASE_TIMEOUT.toMillis();
+        while (true) {
+            var idle = instances.stream().filter(i -> !i.leased && !i.pending).collect(Collectors.toList());
+
+            var match = idle.stream().filter(i -> i.tags.equals(tags)).findFirst();
+            if (match.isPresent()) {
+                match.get().leased = true;
+                return match.get();
+            }
+
+            // an instance with the same tags is being provisioned by the warm up
+            var warming = instances.stream().anyMatch(i -> i.pending && !i.leased && i.tags.equals(tags));
+            if (!warming) {
+                if (instances.size() < size) {
+                    return reserve(tags, null);
+                }
+                if (!idle.isEmpty()) {
+                    instances.remove(idle.get(0));
+                    return reserve(tags, idle.get(0).kafka);
+                }
+            }
+
+            var left = deadline - System.currentTimeMillis();
+            if (left <= 0) {
+                throw new TimeoutException(String.format("timeout after %s waiting for a kafka instance with tags %s", LEASE_TIMEOUT, tags));
+            }
+            log.info("wait for a kafka instance with tags {} to be released", tags);
+            wait(left);
+        }
+    }
+
+    private Instance reserve(Set<String> tags, KafkaRequest evicted) {
+        var instance = new Instance(NAME_PREFIX + ++sequence + "-" + Environment.LAUNCH_SUFFIX, tags);
+        instance.leased = true;
+        instance.pending = true;
+        instance.evicted = evicted;
+        instances.add(instance);
+        return instance;
+    }
+
+    private void provision(Instance instance, KafkaRequestPayload payload)
+        throws ApiGenericException, InterruptedException, KafkaNotReadyException, KafkaClusterCapacityExhaustedException, KafkaUnknownHostsException, KafkaUnprovisionedException {
+
+        log.info("provision pooled kafka instance '{}' with tags {}", instance.name, instance.tags);
+        var kafka = KafkaMgmtApiUtils.applyKafkaInstance(api, payload);
+        synchronized (this) {
+            // set it before the instance is ready so that it can be deleted by id if the next steps fail
+            instance.kafka = kafka;
+        }
+
+        // an instance left by a previous run with the same name may still contain resources
+        var instanceApi = KafkaInstanceApiUtils.kafkaInstanceApi(kafka, offlineToken);
+        deleteTopicsAndGroups(instanceApi);
+        var acls = KafkaInstanceApiAccessUtils.getAllACLs(instanceApi);
+
+        synchronized (this) {
+            instance.acls = acls;
+            instance.pending = false;
+            notifyAll();
+        }
+    }
+
+    private void warmUp(int count) {
+        for (var i = 0; i < count; i++) {
+            var payload = KafkaMgmtApiUtils.defaultKafkaInstance(null);
+            var tags = tagsOf(payload, Set.of());
+
+            Instance instance;
+            synchronized (this) {
+                instance = reserve(tags, null);
+                instance.leased = false;
+            }
+
+            warmer.submit(() -> {
+                try {
+                    provision(instance, copyOf(payload, instance.name));
+                } catch (Exception e) {
+                    log.error("failed to warm up kafka instance '{}': ", instance.name, e);
+                    delete(instance);
+                    remove(instance);
+                }
+            });
+        }
+    }
+
+    void release(KafkaLease lease) {
+        if (!isEnabled()) {
+            try {
+                KafkaMgmtApiUtils.cleanKafkaInstance(api, lease.getKafka().getName());
+            } catch (ApiGenericException e) {
+                log.error("failed to clean kafka instance '{}': ", lease.getKafka().getName(), e);
+            }
+            return;
+        }
+
+        Instance instance;
+        synchronized (this) {
+            instance = instances.stream()
+                .filter(i -> i.kafka != null && i.kafka.getId().equals(lease.getKafka().getId()))
+                .findFirst().orElseThrow();
+        }
+
+        if (!lease.isDiscarded()) {
+            try {
+                reset(instance);
+                synchronized (this) {
+                    instance.leased = false;
+                    instance.uses++;
+                    notifyAll();
+                }
+                log.info("kafka instance '{}' returned to the pool after {} uses", instance.name, instance.uses);
+                return;
+            } catch (Exception e) {
+                log.error("failed to reset kafka instance '{}', the instance will be deleted: ", instance.name, e);
+            }
+        }
+
+        remove(instance);
+        delete(instance);
+    }
+
+    private void reset(Instance instance) throws ApiGenericException {
+        var instanceApi = KafkaInstanceApiUtils.kafkaInstanceApi(instance.kafka, offlineToken);
+        deleteTopicsAndGroups(instanceApi);
+        var reconciliation = KafkaInstanceApiAccessUtils.resetACLsTo(instanceApi, instance.acls, RESET_PARALLELISM);
+        log.info("kafka instance '{}' reset: acls {}", instance.name, reconciliation);
+    }
+
+    private static void deleteTopicsAndGroups(KafkaInstanceApi instanceApi) throws ApiGenericException {
+        var topics = instanceApi.getTopics().getItems().stream()
+            .map(Topic::getName)
+            .collect(Collectors.toList());
+        var failed = KafkaInstanceApiUtils.deleteTopics(instanceApi, topics, RESET_PARALLELISM).values().stream()
+            .filter(r -> !r.isSucceeded())
+            .collect(Collectors.toList());
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException(String.format("failed to delete topics: %s", failed));
+        }
+
+        // the groups are deleted after the topics because a group can't be deleted while it has active members
+        for (var group : instanceApi.getConsumerGroups().getItems()) {
+            instanceApi.deleteConsumerGroupById(group.getGroupId());
+        }
+    }
+
+    private synchronized void remove(Instance instance) {
+        instances.remove(instance);
+        notifyAll();
+    }
+
+    private void delete(Instance instance) {
+        KafkaRequest kafka;
+        synchronized (this) {
+            kafka = instance.kafka;
+        }
+
+        try {
+            if (kafka == null || Environment.SKIP_KAFKA_TEARDOWN || Environment.IS_ENTERPRISE) {
+                // the id is unknown if the creation failed, but the instance may exist anyway
+                KafkaMgmtApiUtils.cleanKafkaInstance(api, instance.name);
+            } else {
+                log.info("delete pooled kafka instance '{}'", instance.name);
+                api.deleteKafkaById(kafka.getId(), true);
+            }
+        } catch (ApiGenericException e) {
+            log.error("failed to clean pooled kafka instance '{}': ", instance.name, e);
+        }
+    }
+
+    /**
+     * Delete all the pooled instances, the next {@link #of(String)} of the same user creates a new pool
+     */
+    public void scaleDown() {
+        POOLS.remove(offlineToken, this);
+        warmer.shutdownNow();
+
+        List<Instance> all;
+        synchronized (this) {
+            all = new ArrayList<>(instances);
+            instances.clear();
+            notifyAll();
+        }
+
+        for (var instance : all) {
+            if (instance.leased) {
+                log.warn("kafka instance '{}' is still leased", instance.name);
+            }
+            delete(instance);
+        }
+    }
+
+    private static Set<String> tagsOf(KafkaRequestPayload payload, Collection<String> tags) {
+        var all = new TreeSet<>(tags);
+        addTag(all, "cloud", payload.getCloudProvider());
+        addTag(all, "region", payload.getRegion());
+        addTag(all, "cluster", payload.getClusterId());
+        addTag(all, "marketplace", payload.getMarketplace());
+        addTag(all, "billing", payload.getBillingModel());
+        return Set.copyOf(all);
+    }
+
+    private static void addTag(Set<String> tags, String key, String value) {
+        if (value != null) {
+            tags.add(key + "=" + value);
+        }
+    }
+
+    private static KafkaRequestPayload copyOf(KafkaRequestPayload payload, String name) {
+        var copy = new KafkaRequestPayload();
+        copy.setName(name);
+        copy.setCloudProvider(payload.getCloudProvider());
+        copy.setRegion(payload.getRegion());
+        copy.setClusterId(payload.getClusterId());
+        copy.setMarketplace(payload.getMarketplace());
+        copy.setBillingModel(payload.getBillingModel());
+        return copy;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("kafka pool: size=%d instances=%s", size,
+            instances.stream().map(i -> i.name + (i.leased ? "(leased)" : i.pending ? "(pending)" : "(idle)")).collect(Collectors.toList()));
+    }
+
+    private static class Instance {
+        private final String name;
+        private final Set<String> tags;
+
+        private KafkaRequest kafka;
+        private List<AclBinding> acls;
+        private KafkaRequest evicted;
+        private boolean leased = false;
+        private boolean pending = false;
+        private int uses = 0;
+
+        Instance(String name, Set<String> tags) {
+            this.name = name;
+            this.tags = new HashSet<>(tags);
+        }
+    }
+}
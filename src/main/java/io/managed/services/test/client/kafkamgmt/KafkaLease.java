@@ -0,0 +1,54 @@
+package io.managed.services.test.client.kafkamgmt;
+
+import com.openshift.cloud.api.kas.models.KafkaRequest;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * A Kafka instance leased from the {@link KafkaInstancePool} to a single test class.
+ * <p>
+ * Closing the lease releases the instance that is reset and returned to the pool, use {@link #discard()} instead
+ * if the test changed the instance in a way that can't be reset (e.g. suspended or changed the owner).
+ */
+@Getter
+public class KafkaLease implements AutoCloseable {
+
+    private final KafkaInstancePool pool;
+    private final KafkaRequest kafka;
+    private final Set<String> tags;
+
+    private boolean discarded = false;
+    private boolean released = false;
+
+    KafkaLease(KafkaInstancePool pool, KafkaRequest kafka, Set<String> tags) {
+        this.pool = pool;
+        this.kafka = kafka;
+        this.tags = tags;
+    }
+
+    /**
+     * Mark the instance as not reusable so that it is deleted when the lease is released
+     */
+    public void discard() {
+        discarded = true;
+    }
+
+    public synchronized void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        pool.release(this);
+    }
+
+    @Override
+    public void close() {
+        release();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("lease of '%s' with tags %s", kafka.getName(), tags);
+    }
+}
@@ -8,10 +8,14 @@ import com.openshift.cloud.api.kas.models.KafkaRequestList;
 import com.openshift.cloud.api.kas.models.KafkaRequestPayload;
 import com.openshift.cloud.api.kas.models.KafkaUpdateRequest;
 import io.managed.services.test.client.BaseApi;
+import io.managed.services.test.client.LookupCache;
 import io.managed.services.test.client.exception.ApiGenericException;
+import io.managed.services.test.metrics.MetricsSnapshot;
 import lombok.extern.log4j.Log4j2;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @Log4j2
@@ -19,8 +23,12 @@ public class KafkaMgmtApi extends BaseApi {
 
     private final V1RequestBuilder v1;
 
+    private final LookupCache<Optional<KafkaRequest>> kafkaByNameCache = new LookupCache<>("kafka-by-name");
+
+    private final LookupCache<MetricsSnapshot> federatedMetricsCache = new LookupCache<>("federated-metrics", Duration.ofSeconds(10));
+
     public KafkaMgmtApi(ApiClient apiClient) {
-        super();
+        super("kafka-mgmt");
         this.v1 = apiClient.api().kafkas_mgmt().v1();
     }
 
@@ -54,14 +62,31 @@ public class KafkaMgmtApi extends BaseApi {
         }).get(10, TimeUnit.SECONDS));
     }
 
+    public LookupCache<Optional<KafkaRequest>> getKafkaByNameCache() {
+        return kafkaByNameCache;
+    }
+
+    public LookupCache<MetricsSnapshot> getFederatedMetricsCache() {
+        return federatedMetricsCache;
+    }
+
     public KafkaRequest createKafka(Boolean async, KafkaRequestPayload kafkaRequestPayload) throws ApiGenericException {
-        return retry(() -> v1.kafkas()
-                        .post(kafkaRequestPayload, config -> config.queryParameters.async = async).get(10, TimeUnit.SECONDS));
+        try {
+            return retry(() -> v1.kafkas()
+                            .post(kafkaRequestPayload, config -> config.queryParameters.async = async).get(10, TimeUnit.SECONDS));
+        } finally {
+            kafkaByNameCache.invalidate(kafkaRequestPayload.getName());
+        }
     }
 
     public void deleteKafkaById(String id, Boolean async) throws ApiGenericException {
-        // TODO: why does it return Error
-        retry(() -> v1.kafkas(id).delete(config -> config.queryParameters.async = async).get(10, TimeUnit.SECONDS));
+        try {
+            // TODO: why does it return Error
+            retry(() -> v1.kafkas(id).delete(config -> config.queryParameters.async = async).get(10, TimeUnit.SECONDS));
+        } finally {
+            kafkaByNameCache.invalidateAll();
+            ProvisioningTimer.forget(id);
+        }
     }
 
     public MetricsInstantQueryListResponse getMetricsByInstantQuery(String id, List<String> filters) throws ApiGenericException {
@@ -75,6 +100,11 @@ public class KafkaMgmtApi extends BaseApi {
     }
 
     public KafkaRequest updateKafka(String instanceId, KafkaUpdateRequest kafkaUpdateRequest) throws ApiGenericException {
-        return retry(() -> v1.kafkas(instanceId).patch(kafkaUpdateRequest).get(10, TimeUnit.SECONDS));
+        try {
+            return retry(() -> v1.kafkas(instanceId).patch(kafkaUpdateRequest).get(10, TimeUnit.SECONDS));
+        } finally {
+            kafkaByNameCache.invalidateAll();
+            federatedMetricsCache.invalidate(instanceId);
+        }
     }
 }
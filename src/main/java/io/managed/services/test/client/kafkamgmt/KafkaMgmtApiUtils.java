@@ -1,20 +1,20 @@
 package io.managed.services.test.client.kafkamgmt;
 
-import com.microsoft.kiota.authentication.BaseBearerTokenAuthenticationProvider;
-import com.microsoft.kiota.http.OkHttpRequestAdapter;
 import com.openshift.cloud.api.kas.ApiClient;
 import com.openshift.cloud.api.kas.models.KafkaRequest;
 import com.openshift.cloud.api.kas.models.KafkaRequestPayload;
 import com.openshift.cloud.api.kas.models.KafkaUpdateRequest;
-import com.redhat.cloud.kiota.auth.RHAccessTokenProvider;
 import io.managed.services.test.DNSUtils;
 import io.managed.services.test.Environment;
 import io.managed.services.test.ThrowingFunction;
 import io.managed.services.test.ThrowingSupplier;
+import io.managed.services.test.client.KiotaUtils;
 import io.managed.services.test.client.exception.ApiForbiddenException;
 import io.managed.services.test.client.exception.ApiGenericException;
 import io.managed.services.test.client.kafkainstance.KafkaInstanceApi;
 import io.managed.services.test.client.kafkainstance.KafkaInstanceApiUtils;
+import io.managed.services.test.metrics.MetricsSnapshot;
+import io.managed.services.test.metrics.PrometheusTextParser;
 import lombok.extern.log4j.Log4j2;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -22,6 +22,7 @@ import org.apache.logging.log4j.Logger;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -29,8 +30,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static io.managed.services.test.TestUtils.waitFor;
@@ -45,19 +44,25 @@ public class KafkaMgmtApiUtils {
     private static final String CLUSTER_CAPACITY_EXHAUSTED_CODE = "KAFKAS-MGMT-24";
 
     public static KafkaMgmtApi kafkaMgmtApi(String uri, String offlineToken) {
-        var adapter = new OkHttpRequestAdapter(new BaseBearerTokenAuthenticationProvider(new RHAccessTokenProvider(offlineToken)));
-        adapter.setBaseUrl(uri);
+        var adapter = KiotaUtils.requestAdapter(uri, offlineToken);
         return new KafkaMgmtApi(new ApiClient(adapter));
     }
 
     /**
      * Get Kafka by name or return empty optional
+     * <p>
+     * The result is cached for a few seconds by the KafkaMgmtApi, use {@link #getKafkaByNameUncached} when the
+     * latest status is required.
      *
      * @param api  KafkaMgmtApi
      * @param name Kafka Instance name
      * @return Optional KafkaRequest
      */
     public static Optional<KafkaRequest> getKafkaByName(KafkaMgmtApi api, String name) throws ApiGenericException {
+        return api.getKafkaByNameCache().get(name, () -> getKafkaByNameUncached(api, name));
+    }
+
+    public static Optional<KafkaRequest> getKafkaByNameUncached(KafkaMgmtApi api, String name) throws ApiGenericException {
         var list = api.getKafkas("1", "1", null, String.format("name = %s", name.trim()));
         return list.getItems().stream().findAny();
     }
@@ -139,6 +144,7 @@ public class KafkaMgmtApiUtils {
     public static KafkaRequest createKafkaInstance(KafkaMgmtApi api, KafkaRequestPayload payload)
         throws ApiGenericException, InterruptedException, KafkaClusterCapacityExhaustedException, KafkaUnprovisionedException {
         var kafkaRequest =  attemptCreatingKafkaInstance(api, payload, ofSeconds(30), ofMinutes(30));
+        ProvisioningTimer.observe(kafkaRequest);
 
         return waitUntilKafkaIsProvisioning(api, kafkaRequest.getId());
     }
@@ -297,6 +303,7 @@ public class KafkaMgmtApiUtils {
         ThrowingFunction<Boolean, Boolean, ApiGenericException> ready = last -> {
             var kafka = api.getKafkaById(kafkaID);
             kafkaAtom.set(kafka);
+            ProvisioningTimer.observe(kafka);
 
             LOGGER.debug(kafka);
             return !"accepted".equals(kafka.getStatus());
@@ -305,6 +312,7 @@ public class KafkaMgmtApiUtils {
         try {
             waitFor("kafka instance to to start provisioning", ofSeconds(30), ofDays(1), ready);
         } catch (TimeoutException e) {
+            ProvisioningTimer.forget(kafkaID);
             // throw a more accurate error
             throw new KafkaUnprovisionedException(kafkaAtom.get(), e);
         }
@@ -395,6 +403,7 @@ public class KafkaMgmtApiUtils {
         ThrowingFunction<Boolean, Boolean, T> ready = last -> {
             var kafka = supplier.get();
             kafkaAtom.set(kafka);
+            ProvisioningTimer.observe(kafka);
 
             LOGGER.debug(kafka);
             return "ready".equals(kafka.getStatus());
@@ -403,6 +412,9 @@ public class KafkaMgmtApiUtils {
         try {
             waitFor("kafka instance to be ready", ofSeconds(10), ofMinutes(30), ready);
         } catch (TimeoutException e) {
+            if (kafkaAtom.get() != null) {
+                ProvisioningTimer.forget(kafkaAtom.get().getId());
+            }
             // throw a more accurate error
             throw new KafkaNotReadyException(kafkaAtom.get(), e);
         }
@@ -454,11 +466,13 @@ public class KafkaMgmtApiUtils {
             return hosts.isEmpty();
         };
 
+        var start = Instant.now();
         try {
             waitFor("kafka hosts to be resolved", ofSeconds(5), ofMinutes(5), ready);
         } catch (TimeoutException e) {
             throw new KafkaUnknownHostsException(hosts, e);
         }
+        ProvisioningTimer.observeDnsResolution(kafka, Duration.between(start, Instant.now()));
 
         LOGGER.debug("kafka hosts '{}' are ready", hosts);
     }
@@ -566,6 +580,19 @@ public class KafkaMgmtApiUtils {
         return mgmtApi.updateKafka(kafka.getId(), kafkaUpdateRequest);
     }
 
+    /**
+     * Fetch and parse the federated metrics of the Kafka instance, the snapshot is cached for a few seconds
+     * so that reading multiple metrics requires a single request.
+     *
+     * @param api   KafkaMgmtApi
+     * @param kafka Kafka instance to query
+     * @return MetricsSnapshot
+     */
+    public static MetricsSnapshot getFederatedMetrics(KafkaMgmtApi api, KafkaRequest kafka) throws ApiGenericException {
+        return api.getFederatedMetricsCache().get(kafka.getId(),
+            () -> PrometheusTextParser.parse(api.federateMetrics(kafka.getId())));
+    }
+
     /**
      * Get total partition limit of given kafka instance.
      *
@@ -573,7 +600,7 @@ public class KafkaMgmtApiUtils {
      * @param kafka    Kafka instance to query
      */
     public static int getPartitionLimitMax(KafkaMgmtApi api, KafkaRequest kafka) throws Exception {
-        return getMetric(api, kafka, "^kafka_instance_partition_limit.*\\s(\\d+)$");
+        return getMetric(api, kafka, "kafka_instance_partition_limit");
     }
 
     /**
@@ -583,7 +610,7 @@ public class KafkaMgmtApiUtils {
      * @param kafka    Kafka instance to query
      */
     public static int getMessageSizeLimit(KafkaMgmtApi api, KafkaRequest kafka) throws Exception {
-        return getMetric(api, kafka, "^kafka_instance_max_message_size_limit.*\\s(\\d+)$");
+        return getMetric(api, kafka, "kafka_instance_max_message_size_limit");
     }
 
     /**
@@ -593,24 +620,19 @@ public class KafkaMgmtApiUtils {
      * @param kafka    Kafka instance to query
      */
     public static int getDesiredBrokerCount(KafkaMgmtApi api, KafkaRequest kafka) throws Exception {
-        return getMetric(api, kafka, "^kafka_instance_spec_brokers_desired_count.*\\s(\\d+)$");
+        return getMetric(api, kafka, "kafka_instance_spec_brokers_desired_count");
     }
 
     /**
-     * Get total partition limit of per given kafka instance.
+     * Get the value of a federated metric with a single series.
      *
      * @param api      KafkaMgmtApi
      * @param kafka    Kafka instance to query
-     * @param regex    metric pattern
+     * @param name     metric name
      */
-    private static int getMetric(KafkaMgmtApi api, KafkaRequest kafka, String regex) throws Exception {
-        var metrics = api.federateMetrics(kafka.getId());
-        final Pattern pattern = Pattern.compile(regex, Pattern.MULTILINE);
-        final Matcher matcher = pattern.matcher(metrics);
-        if (matcher.find()) {
-            return Integer.parseInt(matcher.group(1));
-        }
-        // if not found
-        throw new Exception(String.format("Unable to find metric matching %s", regex));
+    private static int getMetric(KafkaMgmtApi api, KafkaRequest kafka, String name) throws Exception {
+        var value = getFederatedMetrics(api, kafka).value(name)
+            .orElseThrow(() -> new Exception(String.format("Unable to find metric %s", name)));
+        return value.intValue();
     }
 }
@@ -5,7 +5,11 @@ import com.openshift.cloud.api.kas.models.MetricsInstantQueryListResponse_items;
 import com.openshift.cloud.api.kas.models.ServiceAccount;
 import io.managed.services.test.ThrowingFunction;
 import io.managed.services.test.client.exception.ApiGenericException;
-
+import io.managed.services.test.metrics.MetricsDelta;
+import io.managed.services.test.metrics.MetricsSnapshot;
+import io.managed.services.test.metrics.MetricsWatcher;
+import io.managed.services.test.prometheuswebclient.ExpectedMetricRange;
+import io.managed.services.test.prometheuswebclient.MetricRangeWatcher;
 import io.managed.services.test.prometheuswebclient.PrometheusWebClient;
 import io.managed.services.test.prometheuswebclient.PrometheusException;
 import io.managed.services.test.prometheuswebclient.QueryResult;
@@ -16,15 +20,17 @@ import org.apache.logging.log4j.Logger;
 
 import java.time.Duration;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import static io.managed.services.test.TestUtils.bwait;
 import static io.managed.services.test.TestUtils.waitFor;
 import static io.managed.services.test.client.kafka.KafkaMessagingUtils.testTopic;
-import static java.time.Duration.ofMinutes;
 import static java.time.Duration.ofSeconds;
 
 public class KafkaMgmtMetricsUtils {
@@ -43,13 +49,61 @@ public class KafkaMgmtMetricsUtils {
      * @return double
      */
     public static double collectTopicMetric(List<MetricsInstantQueryListResponse_items> metricItems, String topicName, String metric) {
+        return collectTopicMetric(toSnapshot(metricItems), topicName, metric);
+    }
+
+    public static double collectTopicMetric(MetricsSnapshot snapshot, String topicName, String metric) {
+        return snapshot.sum(metric, Map.of("topic", topicName));
+    }
+
+    /**
+     * Index the instant query items by metric name and label set
+     *
+     * @param metricItems List<InstantQuery>
+     * @return MetricsSnapshot
+     */
+    public static MetricsSnapshot toSnapshot(List<MetricsInstantQueryListResponse_items> metricItems) {
         Objects.requireNonNull(metricItems);
-        return metricItems.stream()
-            .filter(item -> item.getMetric() != null)
-            .filter(item -> metric.equals(item.getMetric().getAdditionalData().get("__name__")))
-            .filter(item -> topicName.equals(item.getMetric().getAdditionalData().get("topic")))
-            .mapToDouble(i -> i.getValue())
-            .sum();
+
+        var builder = MetricsSnapshot.builder();
+        for (var item : metricItems) {
+            if (item.getMetric() == null || item.getValue() == null) {
+                continue;
+            }
+
+            String name = null;
+            var labels = new HashMap<String, String>();
+            for (var e : item.getMetric().getAdditionalData().entrySet()) {
+                if ("__name__".equals(e.getKey())) {
+                    name = String.valueOf(e.getValue());
+                } else {
+                    labels.put(e.getKey(), String.valueOf(e.getValue()));
+                }
+            }
+
+            if (name != null) {
+                builder.add(name, labels, item.getValue());
+            }
+        }
+        return builder.build();
+    }
+
+    public static MetricsSnapshot getInstantMetrics(KafkaMgmtApi api, String kafkaId) throws ApiGenericException {
+        return toSnapshot(api.getMetricsByInstantQuery(kafkaId, Collections.<String>emptyList()).getItems());
+    }
+
+    /**
+     * Poll the instant metrics of the Kafka instance and pass to the listener only the changed series.
+     * The returned watcher must be closed to stop the polling.
+     *
+     * @param api      KafkaMgmtApi
+     * @param kafkaId  Kafka instance id
+     * @param interval The polling interval
+     * @param listener The listener of the changed series
+     * @return the started MetricsWatcher
+     */
+    public static MetricsWatcher watchInstantMetrics(KafkaMgmtApi api, String kafkaId, Duration interval, Consumer<MetricsDelta> listener) {
+        return new MetricsWatcher(() -> getInstantMetrics(api, kafkaId), interval, listener).start();
     }
 
     public static void testMessageInTotalMetric(
@@ -62,8 +116,7 @@ public class KafkaMgmtMetricsUtils {
         LOGGER.info("start testing message in total metric");
 
         // retrieve the current in messages before sending more
-        var metricsList = api.getMetricsByInstantQuery(kafka.getId(), Collections.<String>emptyList());
-        var initialInMessages = collectTopicMetric(metricsList.getItems(), topicName, IN_MESSAGES_METRIC);
+        var initialInMessages = collectTopicMetric(getInstantMetrics(api, kafka.getId()), topicName, IN_MESSAGES_METRIC);
         LOGGER.info("the topic '{}' started with '{}' in messages", topicName, initialInMessages);
 
         // send n messages to the topic
@@ -82,8 +135,7 @@ public class KafkaMgmtMetricsUtils {
         var finalInMessagesAtom = new AtomicReference<Double>();
         ThrowingFunction<Boolean, Boolean, ApiGenericException> isMetricUpdated = last -> {
 
-            var m = api.getMetricsByInstantQuery(kafka.getId(), Collections.<String>emptyList());
-            var i = collectTopicMetric(m.getItems(), topicName, IN_MESSAGES_METRIC);
+            var i = collectTopicMetric(getInstantMetrics(api, kafka.getId()), topicName, IN_MESSAGES_METRIC);
             finalInMessagesAtom.set(i);
 
             LOGGER.debug("kafka_server_brokertopicmetrics_messages_in_total: {}", i);
@@ -95,47 +147,35 @@ public class KafkaMgmtMetricsUtils {
     }
 
 
+    public static void waitUntilExpectedMetricRange(PrometheusWebClient promWebBasedClient, String kafkaId, PrometheusWebClient.Query query, double snapshotOfPreviouslyObservedValue, double expectedIncrease, double errorRangePercentage) {
+        waitUntilExpectedMetricRange(promWebBasedClient, kafkaId, query, snapshotOfPreviouslyObservedValue, expectedIncrease, errorRangePercentage, MetricRangeWatcher.DEFAULT_INTERVAL, MetricRangeWatcher.DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Wait for a single metric, use the {@link MetricRangeWatcher} to wait for multiple metrics at the same time.
+     */
     @SneakyThrows
-    public static <T extends Throwable> void waitUntilExpectedMetricRange(PrometheusWebClient promWebBasedClient, String kafkaId, PrometheusWebClient.Query query, double snapshotOfPreviouslyObservedValue, double expectedIncrease, double errorRangePercentage) {
+    public static <T extends Throwable> void waitUntilExpectedMetricRange(PrometheusWebClient promWebBasedClient, String kafkaId, PrometheusWebClient.Query query, double snapshotOfPreviouslyObservedValue, double expectedIncrease, double errorRangePercentage, Duration interval, Duration timeout) {
 
-        // some of metrics may actually decrease between time we obtain snapshot, and time generated data/actions take place
-        // therefore if obtained metric is lower than originally read data,we replace previouslyObservedValue.
-        var previouslyObservedValueAtom = new AtomicReference<Double>(snapshotOfPreviouslyObservedValue);
+        var range = new ExpectedMetricRange(query.toString(), query, snapshotOfPreviouslyObservedValue, expectedIncrease, errorRangePercentage);
 
         ThrowingFunction<Boolean, Boolean, T> ready = last -> {
-            //PrometheusBasedWebClient.Query query = new PrometheusBasedWebClient.Query();
-            //query.metric(metricName).label("_id", kafkaId);
-            QueryResult result = null;
+            QueryResult result;
             try {
                 result = promWebBasedClient.query(query);
             } catch (PrometheusException e) {
-                e.printStackTrace();
+                LOGGER.warn("failed to query the metric, retry at the next interval: ", e);
+                return false;
             }
-            Double newObservedValue = result.data.result.get(0).doubleValue();
-
-            var previouslyObservedValue = previouslyObservedValueAtom.get();
-
-            // Compare if observedIncrease (i.e., increase in metric from beginning of observation) falls within range of expected increase.
-            double observedIncrease = newObservedValue - previouslyObservedValue;
-            //LOGGER.info("currently observed increase: {}", observedIncrease);
-            // how many %from expected data, are observed far from. e.g. expect 200 bytes, observed 80, difference is - 60 (%).
-            var differencePercentage = (observedIncrease - expectedIncrease) / (expectedIncrease / 100);
-            LOGGER.info("currently observed difference %: {}", differencePercentage);
-
-            if (differencePercentage < -100.0) {
-                LOGGER.debug("newly observed value is smaller than previously observed value, correcting expected value");
-                previouslyObservedValueAtom.set(newObservedValue);
+            if (result.data == null || result.data.result.isEmpty()) {
+                LOGGER.info("metric not available yet");
+                return false;
             }
-
-            // information about if there was too little/ many data produced is important as well, so check from both side is made
-            var isReady = differencePercentage > -errorRangePercentage && differencePercentage < errorRangePercentage;
-
-            //LOGGER.info("is metric data within expected range: {}", isReady);
-            return isReady;
+            return range.observe(result.data.result.get(0).doubleValue()) == ExpectedMetricRange.Status.CONVERGED;
         };
 
         try {
-            waitFor("metric to be ready", ofSeconds(6), ofMinutes(10), ready);
+            waitFor("metric to be ready", interval, timeout, ready);
         } catch (TimeoutException e) {
             // throw a more accurate error
             throw new PrometheusException("metric not ready within expected time");
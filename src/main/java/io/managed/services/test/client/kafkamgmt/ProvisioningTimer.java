@@ -0,0 +1,117 @@
+package io.managed.services.test.client.kafkamgmt;
+
+import com.openshift.cloud.api.kas.models.KafkaRequest;
+import io.managed.services.test.Environment;
+import io.prometheus.client.Histogram;
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Record the time spent by each Kafka instance in the accepted, preparing and provisioning states and the time
+ * needed to resolve its hosts, tagged by cloud provider, region and instance type.
+ * <p>
+ * The lifecycle helpers of {@link KafkaMgmtApiUtils} report every polled status, therefore the precision is the
+ * polling interval. A state is recorded only when both its start and its end are observed by the same run, except
+ * for the accepted state that starts when the instance is created. The instances that are deleted, or that are not
+ * polled anymore for ABANDON_AFTER, are forgotten without recording their last state.
+ */
+@Log4j2
+public class ProvisioningTimer {
+
+    private static final Histogram PHASES = Histogram.build()
+        .name("test_kafka_provisioning_phase_duration_seconds")
+        .labelNames("launch", "cloud_provider", "region", "instance_type", "phase")
+        .buckets(5, 15, 30, 60, 120, 180, 300, 450, 600, 900, 1200, 1800)
+        .help("Time spent by the Kafka instances in each provisioning state and in the DNS resolution.").register();
+
+    public static final String DNS_PHASE = "dns";
+
+    // an instance not polled for longer has been abandoned by a failed or timed out wait
+    private static final Duration ABANDON_AFTER = Duration.ofHours(1);
+
+    // the last observed state by kafka instance id
+    private static final Map<String, State> STATES = new ConcurrentHashMap<>();
+
+    /**
+     * Record the time spent in the previous state if the status of the Kafka instance changed
+     */
+    public static void observe(KafkaRequest kafka) {
+        var id = kafka.getId();
+        var status = kafka.getStatus();
+        if (id == null || status == null) {
+            return;
+        }
+
+        var now = Instant.now();
+        STATES.values().removeIf(s -> s.observedAt.isBefore(now.minus(ABANDON_AFTER)));
+
+        var previous = STATES.get(id);
+        if (previous == null && isFinal(status)) {
+            return;
+        }
+        if (previous == null) {
+            // the accepted state starts with the creation of the instance, for all the others the start is unknown
+            var start = "accepted".equals(status) && kafka.getCreatedAt() != null ? kafka.getCreatedAt().toInstant() : null;
+            STATES.put(id, new State(status, start, now));
+            return;
+        }
+        if (previous.status.equals(status)) {
+            STATES.put(id, new State(previous.status, previous.since, now));
+            return;
+        }
+
+        if (previous.since != null) {
+            record(kafka, previous.status, Duration.between(previous.since, now));
+        }
+
+        if (isFinal(status)) {
+            STATES.remove(id);
+        } else {
+            STATES.put(id, new State(status, now, now));
+        }
+    }
+
+    /**
+     * Stop tracking the Kafka instance because it has been deleted, or nobody is going to wait for it anymore
+     */
+    public static void forget(String id) {
+        if (id != null) {
+            STATES.remove(id);
+        }
+    }
+
+    private static boolean isFinal(String status) {
+        return "ready".equals(status) || "failed".equals(status) || "deprovision".equals(status);
+    }
+
+    public static void observeDnsResolution(KafkaRequest kafka, Duration duration) {
+        record(kafka, DNS_PHASE, duration);
+    }
+
+    private static void record(KafkaRequest kafka, String phase, Duration duration) {
+        log.info("kafka instance '{}' spent {}s in '{}'", kafka.getName(), duration.toSeconds(), phase);
+        PHASES.labels(
+            Environment.LAUNCH_KEY,
+            Objects.requireNonNullElse(kafka.getCloudProvider(), "unknown"),
+            Objects.requireNonNullElse(kafka.getRegion(), "unknown"),
+            Objects.requireNonNullElse(kafka.getInstanceType(), "unknown"),
+            phase).observe(duration.toMillis() / 1000.0);
+    }
+
+    private static class State {
+        private final String status;
+        private final Instant since;
+        private final Instant observedAt;
+
+        State(String status, Instant since, Instant observedAt) {
+            this.status = status;
+            this.since = since;
+            this.observedAt = observedAt;
+        }
+    }
+}
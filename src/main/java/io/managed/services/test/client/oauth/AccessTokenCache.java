@@ -0,0 +1,169 @@
+package io.managed.services.test.client.oauth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.cloud.kiota.auth.RHAccessTokenProvider;
+import io.managed.services.test.Environment;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
+import lombok.SneakyThrows;
+import lombok.extern.log4j.Log4j2;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process wide cache of the access tokens exchanged for each offline token.
+ * <p>
+ * All the API clients created from the same offline token share the same access token which is refreshed in
+ * background ACCESS_TOKEN_REFRESH_MARGIN_SECONDS before it expires, so that the calls never have to wait for the
+ * token exchange after the first one.
+ */
+@Log4j2
+public class AccessTokenCache {
+
+    // used when the access token is not a JWT, or it doesn't contain the exp claim
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService REFRESHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        var t = new Thread(r, "access-token-refresher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final Counter LOOKUPS = Counter.build()
+        .name("test_access_token_cache_lookups")
+        .labelNames("launch", "result")
+        .help("Access token cache lookups by result (hit or miss).").register();
+
+    private static final Histogram REFRESH_LATENCY = Histogram.build()
+        .name("test_access_token_refresh_duration_seconds")
+        .labelNames("launch", "type")
+        .buckets(0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30)
+        .help("Duration of the offline token exchange by type (miss or proactive).").register();
+
+    /**
+     * Return the cached access token for the offline token or exchange it using the given request URI and context.
+     *
+     * @param offlineToken The user offline token
+     * @param uri          The URI of the request that needs the token
+     * @param context      The additional authentication context passed by Kiota
+     * @return a valid access token
+     */
+    public static String get(String offlineToken, URI uri, Map<String, Object> context) {
+        Objects.requireNonNull(offlineToken);
+        return ENTRIES.computeIfAbsent(offlineToken, Entry::new).get(uri, context);
+    }
+
+    private static String exchange(String offlineToken, URI uri, Map<String, Object> context) throws Exception {
+        // always use a new provider to force the exchange
+        return new RHAccessTokenProvider(offlineToken).getAuthorizationToken(uri, context).get();
+    }
+
+    static Instant expiresAt(String accessToken) {
+        try {
+            var parts = accessToken.split("\\.");
+            if (parts.length == 3) {
+                var exp = MAPPER.readTree(Base64.getUrlDecoder().decode(parts[1])).get("exp");
+                if (exp != null && exp.canConvertToLong()) {
+                    return Instant.ofEpochSecond(exp.asLong());
+                }
+            }
+        } catch (Exception e) {
+            log.debug("failed to decode the access token expiration: ", e);
+        }
+        return Instant.now().plus(DEFAULT_TTL);
+    }
+
+    private static class Entry {
+        private final String offlineToken;
+
+        private String token;
+        private Instant expiresAt;
+        private ScheduledFuture<?> refresh;
+
+        // the request of the last lookup, used by the proactive refresh
+        private URI uri;
+        private Map<String, Object> context;
+
+        Entry(String offlineToken) {
+            this.offlineToken = offlineToken;
+        }
+
+        @SneakyThrows
+        synchronized String get(URI uri, Map<String, Object> context) {
+            this.uri = uri;
+            this.context = context;
+
+            if (token != null && Instant.now().isBefore(expiresAt)) {
+                LOOKUPS.labels(Environment.LAUNCH_KEY, "hit").inc();
+                return token;
+            }
+
+            // the concurrent lookups wait for the same exchange because they can't proceed without a token anyway
+            LOOKUPS.labels(Environment.LAUNCH_KEY, "miss").inc();
+            update(exchange("miss", uri, context));
+            return token;
+        }
+
+        /**
+         * Exchange the token without holding the lock so that the lookups keep returning the current token, which
+         * is still valid, until the new one replaces it
+         */
+        private void refresh() {
+            URI u;
+            Map<String, Object> c;
+            synchronized (this) {
+                u = uri;
+                c = context;
+            }
+
+            try {
+                var t = exchange("proactive", u, c);
+                synchronized (this) {
+                    update(t);
+                }
+            } catch (Exception e) {
+                log.warn("failed to refresh the access token, it will be exchanged again after it expires: ", e);
+            }
+        }
+
+        private String exchange(String type, URI uri, Map<String, Object> context) throws Exception {
+            var start = System.nanoTime();
+            var t = AccessTokenCache.exchange(offlineToken, uri, context);
+            REFRESH_LATENCY.labels(Environment.LAUNCH_KEY, type).observe((System.nanoTime() - start) / 1e9);
+            return t;
+        }
+
+        // called holding the lock
+        private void update(String t) {
+            token = t;
+            expiresAt = expiresAt(t);
+
+            if (refresh != null) {
+                refresh.cancel(false);
+                refresh = null;
+            }
+
+            var margin = Duration.ofSeconds(Environment.ACCESS_TOKEN_REFRESH_MARGIN_SECONDS);
+            var delay = Duration.between(Instant.now(), expiresAt.minus(margin));
+            if (delay.isNegative()) {
+                // the token lives less than the margin, the next lookup after the expiration will exchange it again
+                return;
+            }
+            refresh = REFRESHER.schedule(this::refresh, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+}
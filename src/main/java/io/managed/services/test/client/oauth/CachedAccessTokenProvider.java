@@ -0,0 +1,43 @@
+package io.managed.services.test.client.oauth;
+
+import com.microsoft.kiota.authentication.AccessTokenProvider;
+import com.microsoft.kiota.authentication.AllowedHostsValidator;
+import com.redhat.cloud.kiota.auth.RHAccessTokenProvider;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Kiota AccessTokenProvider that takes the access token from the {@link AccessTokenCache} instead of exchanging
+ * the offline token for each API client.
+ */
+public class CachedAccessTokenProvider implements AccessTokenProvider {
+
+    private final String offlineToken;
+    private final RHAccessTokenProvider delegate;
+
+    public CachedAccessTokenProvider(String offlineToken) {
+        this.offlineToken = offlineToken;
+        this.delegate = new RHAccessTokenProvider(offlineToken);
+    }
+
+    @Override
+    public CompletableFuture<String> getAuthorizationToken(URI uri, Map<String, Object> context) {
+        if (!getAllowedHostsValidator().isUrlHostValid(uri)) {
+            // let the original provider decide what to do with hosts that are not allowed
+            return delegate.getAuthorizationToken(uri, context);
+        }
+
+        try {
+            return CompletableFuture.completedFuture(AccessTokenCache.get(offlineToken, uri, context));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public AllowedHostsValidator getAllowedHostsValidator() {
+        return delegate.getAllowedHostsValidator();
+    }
+}
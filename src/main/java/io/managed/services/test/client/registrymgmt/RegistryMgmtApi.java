@@ -6,6 +6,7 @@ import com.openshift.cloud.api.srs.models.RegistryCreate;
 import com.openshift.cloud.api.srs.models.RegistryList;
 import com.openshift.cloud.api.srs.models.RootTypeForRegistry;
 import io.managed.services.test.client.BaseApi;
+import io.managed.services.test.client.LookupCache;
 import io.managed.services.test.client.exception.ApiGenericException;
 import lombok.extern.log4j.Log4j2;
 import java.util.concurrent.TimeUnit;
@@ -15,8 +16,10 @@ public class RegistryMgmtApi extends BaseApi {
 
     private final V1RequestBuilder v1;
 
+    private final LookupCache<RegistryList> registryByNameCache = new LookupCache<>("registry-by-name");
+
     public RegistryMgmtApi(ApiClient apiClient) {
-        super();
+        super("registry-mgmt");
         this.v1 = apiClient.api().serviceregistry_mgmt().v1();
     }
 
@@ -38,8 +41,16 @@ public class RegistryMgmtApi extends BaseApi {
         return null;
     }
 
+    public LookupCache<RegistryList> getRegistryByNameCache() {
+        return registryByNameCache;
+    }
+
     public RootTypeForRegistry createRegistry(RegistryCreate registryCreateRest) throws ApiGenericException {
-        return retry(() -> v1.registries().post(registryCreateRest).get(10, TimeUnit.SECONDS));
+        try {
+            return retry(() -> v1.registries().post(registryCreateRest).get(10, TimeUnit.SECONDS));
+        } finally {
+            registryByNameCache.invalidate(registryCreateRest.getName());
+        }
     }
 
     public RootTypeForRegistry getRegistry(String id) throws ApiGenericException {
@@ -56,6 +67,10 @@ public class RegistryMgmtApi extends BaseApi {
     }
 
     public void deleteRegistry(String id) throws ApiGenericException {
-        retry(() -> v1.registries(id).delete().get(10, TimeUnit.SECONDS));
+        try {
+            retry(() -> v1.registries(id).delete().get(10, TimeUnit.SECONDS));
+        } finally {
+            registryByNameCache.invalidateAll();
+        }
     }
 }
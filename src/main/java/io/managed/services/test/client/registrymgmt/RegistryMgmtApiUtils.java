@@ -1,16 +1,14 @@
 package io.managed.services.test.client.registrymgmt;
 
-import com.microsoft.kiota.authentication.BaseBearerTokenAuthenticationProvider;
-import com.microsoft.kiota.http.OkHttpRequestAdapter;
 import com.openshift.cloud.api.srs.ApiClient;
 import com.openshift.cloud.api.srs.models.Registry;
 import com.openshift.cloud.api.srs.models.RegistryCreate;
 import com.openshift.cloud.api.srs.models.RegistryList;
 import com.openshift.cloud.api.srs.models.RootTypeForRegistry;
-import com.redhat.cloud.kiota.auth.RHAccessTokenProvider;
 import io.managed.services.test.Environment;
 import io.managed.services.test.ThrowingFunction;
 import io.managed.services.test.ThrowingSupplier;
+import io.managed.services.test.client.KiotaUtils;
 import io.managed.services.test.client.exception.ApiGenericException;
 import io.managed.services.test.client.exception.ApiNotFoundException;
 import io.vertx.core.json.Json;
@@ -31,14 +29,12 @@ public class RegistryMgmtApiUtils {
     private static final Logger LOGGER = LogManager.getLogger(RegistryMgmtApiUtils.class);
 
     public static RegistryMgmtApi registryMgmtApi(String offlineToken) {
-        var adapter = new OkHttpRequestAdapter(new BaseBearerTokenAuthenticationProvider(new RHAccessTokenProvider(offlineToken)));
-        adapter.setBaseUrl(Environment.OPENSHIFT_API_URI);
+        var adapter = KiotaUtils.requestAdapter(Environment.OPENSHIFT_API_URI, offlineToken);
 
         return new RegistryMgmtApi(new ApiClient(adapter));
     }
     public static RegistryMgmtApi registryMgmtApi(String uri, String offlineToken) {
-        var adapter = new OkHttpRequestAdapter(new BaseBearerTokenAuthenticationProvider(new RHAccessTokenProvider(offlineToken)));
-        adapter.setBaseUrl(uri);
+        var adapter = KiotaUtils.requestAdapter(uri, offlineToken);
 
         return new RegistryMgmtApi(new ApiClient(adapter));
     }
@@ -247,6 +243,7 @@ public class RegistryMgmtApiUtils {
     public static RegistryList getRegistryByName(RegistryMgmtApi api, String name) throws ApiGenericException {
 
         // Attention: we support only 10 registries until the name doesn't become unique
-        return api.getRegistries(1, 10, null, String.format("name = %s", name));
+        return api.getRegistryByNameCache().get(name,
+            () -> api.getRegistries(1, 10, null, String.format("name = %s", name)));
     }
 }
@@ -1,13 +1,11 @@
 package io.managed.services.test.client.securitymgmt;
 
 
-import com.microsoft.kiota.authentication.BaseBearerTokenAuthenticationProvider;
-import com.microsoft.kiota.http.OkHttpRequestAdapter;
 import com.openshift.cloud.api.kas.ApiClient;
 import com.openshift.cloud.api.kas.models.ServiceAccount;
 import com.openshift.cloud.api.kas.models.ServiceAccountListItem;
 import com.openshift.cloud.api.kas.models.ServiceAccountRequest;
-import com.redhat.cloud.kiota.auth.RHAccessTokenProvider;
+import io.managed.services.test.client.KiotaUtils;
 import io.managed.services.test.client.exception.ApiGenericException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -20,8 +18,7 @@ public class SecurityMgmtAPIUtils {
     private static final Logger LOGGER = LogManager.getLogger(SecurityMgmtAPIUtils.class);
 
     public static SecurityMgmtApi securityMgmtApi(String uri, String offlineToken) {
-        var adapter = new OkHttpRequestAdapter(new BaseBearerTokenAuthenticationProvider(new RHAccessTokenProvider(offlineToken)));
-        adapter.setBaseUrl(uri);
+        var adapter = KiotaUtils.requestAdapter(uri, offlineToken);
         return new SecurityMgmtApi(new ApiClient(adapter));
     }
 
@@ -35,8 +32,10 @@ public class SecurityMgmtAPIUtils {
     public static Optional<ServiceAccountListItem> getServiceAccountByName(SecurityMgmtApi api, String name)
         throws ApiGenericException {
 
-        var list = api.getServiceAccounts();
-        return list.getItems().stream().filter(a -> name.equals(a.getName())).findAny();
+        return api.getServiceAccountByNameCache().get(name, () -> {
+            var list = api.getServiceAccounts();
+            return list.getItems().stream().filter(a -> name.equals(a.getName())).findAny();
+        });
     }
 
     /**
@@ -4,11 +4,14 @@ import com.openshift.cloud.api.kas.ApiClient;
 import com.openshift.cloud.api.kas.api.kafkas_mgmt.v1.V1RequestBuilder;
 import com.openshift.cloud.api.kas.api.kafkas_mgmt.v1.service_accounts.ServiceAccountListResponse;
 import com.openshift.cloud.api.kas.models.ServiceAccount;
+import com.openshift.cloud.api.kas.models.ServiceAccountListItem;
 import com.openshift.cloud.api.kas.models.ServiceAccountRequest;
 import io.managed.services.test.client.BaseApi;
+import io.managed.services.test.client.LookupCache;
 import io.managed.services.test.client.exception.ApiGenericException;
 import lombok.extern.log4j.Log4j2;
 
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @Log4j2
@@ -16,8 +19,10 @@ public class SecurityMgmtApi extends BaseApi {
 
     private final V1RequestBuilder v1;
 
+    private final LookupCache<Optional<ServiceAccountListItem>> serviceAccountByNameCache = new LookupCache<>("service-account-by-name");
+
     public SecurityMgmtApi(ApiClient apiClient) {
-        super();
+        super("security-mgmt");
         this.v1 = apiClient.api().kafkas_mgmt().v1();
     }
 
@@ -30,17 +35,33 @@ public class SecurityMgmtApi extends BaseApi {
         return retry(() -> v1.service_accounts().get().get(10, TimeUnit.SECONDS));
     }
 
+    public LookupCache<Optional<ServiceAccountListItem>> getServiceAccountByNameCache() {
+        return serviceAccountByNameCache;
+    }
+
     public ServiceAccount createServiceAccount(ServiceAccountRequest serviceAccountRequest) throws ApiGenericException {
-        return retry(() -> v1.service_accounts().post(serviceAccountRequest).get(10, TimeUnit.SECONDS));
+        try {
+            return retry(() -> v1.service_accounts().post(serviceAccountRequest).get(10, TimeUnit.SECONDS));
+        } finally {
+            serviceAccountByNameCache.invalidate(serviceAccountRequest.getName());
+        }
     }
 
     public void deleteServiceAccountById(String id) throws ApiGenericException {
-        // TODO: why does it return Error
-        retry(() -> v1.service_accounts(id).delete().get(10, TimeUnit.SECONDS));
+        try {
+            // TODO: why does it return Error
+            retry(() -> v1.service_accounts(id).delete().get(10, TimeUnit.SECONDS));
+        } finally {
+            serviceAccountByNameCache.invalidateAll();
+        }
     }
 
     public ServiceAccount resetServiceAccountCreds(String id) throws ApiGenericException {
-        return retry(() -> v1.service_accounts(id).reset_credentials().post().get(10, TimeUnit.SECONDS));
+        try {
+            return retry(() -> v1.service_accounts(id).reset_credentials().post().get(10, TimeUnit.SECONDS));
+        } finally {
+            serviceAccountByNameCache.invalidateAll();
+        }
     }
 
     @Override
@@ -0,0 +1,31 @@
+package io.managed.services.test.framework;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declare the quota limited resources a test class consumes at the same time, so that the
+ * {@link ResourceScheduler} can run the classes in parallel without exceeding the quota.
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConsumesResources {
+
+    /**
+     * One entry for each Kafka instance by type (ex: {"standard", "developer"})
+     */
+    String[] kafkaInstances() default {};
+
+    int serviceAccounts() default 0;
+
+    int registries() default 0;
+
+    /**
+     * Streaming units of the data plane cluster
+     */
+    int clusterCapacity() default 0;
+}
@@ -0,0 +1,24 @@
+package io.managed.services.test.framework;
+
+import io.managed.services.test.Environment;
+import io.managed.services.test.client.kafkamgmt.KafkaInstancePool;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IExecutionListener;
+
+/**
+ * Scale down the Kafka instance pools at the end of the run, so that the warm instances are shared by all the
+ * suites executed by the same JVM
+ */
+public class KafkaInstancePoolListener implements IExecutionListener {
+    private static final Logger LOGGER = LogManager.getLogger(KafkaInstancePoolListener.class);
+
+    @Override
+    public void onExecutionFinish() {
+        if (Environment.SKIP_TEARDOWN) {
+            LOGGER.warn("skip kafka instance pool scale down");
+            return;
+        }
+        KafkaInstancePool.scaleDownAll();
+    }
+}
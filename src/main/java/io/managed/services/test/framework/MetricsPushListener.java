@@ -0,0 +1,40 @@
+package io.managed.services.test.framework;
+
+import io.managed.services.test.Environment;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.exporter.PushGateway;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * Push all the metrics collected by the tests to the PROMETHEUS_PUSH_GATEWAY at the end of each suite,
+ * the metrics are grouped by launch so that multiple suites of the same launch add up.
+ */
+public class MetricsPushListener implements ISuiteListener {
+    private static final Logger LOGGER = LogManager.getLogger(MetricsPushListener.class);
+
+    private static final String JOB = "mas-e2e-tests";
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (Environment.PROMETHEUS_PUSH_GATEWAY == null) {
+            return;
+        }
+
+        try {
+            var address = Environment.PROMETHEUS_PUSH_GATEWAY;
+            var gateway = address.startsWith("http") ? new PushGateway(new URL(address)) : new PushGateway(address);
+            gateway.pushAdd(CollectorRegistry.defaultRegistry, JOB, Map.of("launch", Environment.LAUNCH_KEY));
+            LOGGER.info("metrics of suite '{}' pushed to '{}'", suite.getName(), address);
+        } catch (IOException e) {
+            // never fail the tests because of the metrics
+            LOGGER.warn("failed to push the metrics to '{}': ", Environment.PROMETHEUS_PUSH_GATEWAY, e);
+        }
+    }
+}
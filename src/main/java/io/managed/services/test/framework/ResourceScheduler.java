@@ -0,0 +1,196 @@
+package io.managed.services.test.framework;
+
+import io.managed.services.test.Environment;
+import io.prometheus.client.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.IClassListener;
+import org.testng.ITestClass;
+import org.testng.xml.XmlSuite;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Run the tests of the suites in parallel with TEST_PARALLELISM threads but start a class only when the resources
+ * it declares with {@link ConsumesResources} are available within the TEST_RESOURCE_QUOTA, otherwise the class
+ * waits for the running classes to release them.
+ * <p>
+ * All resources of a class are acquired at once before the @BeforeClass methods and released after the
+ * @AfterClass methods, therefore two classes can never deadlock waiting for each other. The resources without
+ * a quota are unlimited and a class that requires more than the quota of a resource gets the whole quota.
+ * <p>
+ * The scheduler must be registered as listener in the suite xml because it alters the suite before it starts.
+ */
+public class ResourceScheduler implements IAlterSuiteListener, IClassListener {
+    private static final Logger LOGGER = LogManager.getLogger(ResourceScheduler.class);
+
+    private static final Histogram WAIT = Histogram.build()
+        .name("test_resource_scheduler_wait_seconds")
+        .labelNames("launch", "class")
+        .buckets(1, 10, 30, 60, 300, 600, 1200, 1800, 3600)
+        .help("Time spent by the test classes waiting for the resources they consume.").register();
+
+    public static final String KAFKA_RESOURCE_PREFIX = "kafka-";
+    public static final String SERVICE_ACCOUNT_RESOURCE = "service-account";
+    public static final String REGISTRY_RESOURCE = "registry";
+    public static final String CLUSTER_CAPACITY_RESOURCE = "cluster-capacity";
+
+    private static final Map<String, Integer> QUOTA = parseQuota(Environment.TEST_RESOURCE_QUOTA);
+
+    // guarded by itself
+    private static final Map<String, Integer> USED = new HashMap<>();
+    private static final Map<Class<?>, Map<String, Integer>> ACQUIRED = new ConcurrentHashMap<>();
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (Environment.TEST_PARALLELISM <= 1) {
+            return;
+        }
+
+        for (var suite : suites) {
+            // respect the suites that already configure the parallel mode
+            if (suite.getParallel() == null || suite.getParallel() == XmlSuite.ParallelMode.NONE) {
+                suite.setParallel(XmlSuite.ParallelMode.TESTS);
+                suite.setThreadCount(Environment.TEST_PARALLELISM);
+                LOGGER.info("run suite '{}' with {} threads and quota {}", suite.getName(), Environment.TEST_PARALLELISM, QUOTA);
+            }
+        }
+    }
+
+    @Override
+    public void onBeforeClass(ITestClass testClass) {
+        var c = testClass.getRealClass();
+        var demand = demand(c);
+        if (demand.isEmpty()) {
+            return;
+        }
+
+        var timer = WAIT.labels(Environment.LAUNCH_KEY, c.getSimpleName()).startTimer();
+        try {
+            acquire(c, demand);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("interrupted while waiting for resources %s", demand), e);
+        } finally {
+            timer.observeDuration();
+        }
+    }
+
+    @Override
+    public void onAfterClass(ITestClass testClass) {
+        var c = testClass.getRealClass();
+        var acquired = ACQUIRED.remove(c);
+        if (acquired == null) {
+            return;
+        }
+
+        synchronized (USED) {
+            acquired.forEach((resource, count) -> USED.merge(resource, -count, Integer::sum));
+            USED.notifyAll();
+        }
+        LOGGER.info("class '{}' released resources {}", c.getSimpleName(), acquired);
+    }
+
+    private static void acquire(Class<?> c, Map<String, Integer> demand) throws InterruptedException {
+        synchronized (USED) {
+            while (!fits(demand, QUOTA, USED)) {
+                LOGGER.info("class '{}' waits for resources {}, in use {}", c.getSimpleName(), demand, USED);
+                USED.wait();
+            }
+            demand.forEach((resource, count) -> USED.merge(resource, count, Integer::sum));
+        }
+        ACQUIRED.put(c, demand);
+        LOGGER.info("class '{}' acquired resources {}", c.getSimpleName(), demand);
+    }
+
+    /**
+     * @return true if the demand can be added to the used resources without exceeding the quota
+     */
+    static boolean fits(Map<String, Integer> demand, Map<String, Integer> quota, Map<String, Integer> used) {
+        return demand.entrySet().stream().allMatch(e -> {
+            var q = quota.get(e.getKey());
+            return q == null || used.getOrDefault(e.getKey(), 0) + e.getValue() <= q;
+        });
+    }
+
+    static Map<String, Integer> demand(Class<?> c) {
+        return demand(c, QUOTA);
+    }
+
+    /**
+     * @return the resources declared by the class limited by the quota
+     */
+    static Map<String, Integer> demand(Class<?> c, Map<String, Integer> quota) {
+        var annotation = c.getAnnotation(ConsumesResources.class);
+        if (annotation == null) {
+            return Map.of();
+        }
+
+        var demand = new HashMap<String, Integer>();
+        for (var type : annotation.kafkaInstances()) {
+            demand.merge(KAFKA_RESOURCE_PREFIX + type, 1, Integer::sum);
+        }
+        demand.put(SERVICE_ACCOUNT_RESOURCE, annotation.serviceAccounts());
+        demand.put(REGISTRY_RESOURCE, annotation.registries());
+        demand.put(CLUSTER_CAPACITY_RESOURCE, annotation.clusterCapacity());
+        demand.values().removeIf(v -> v <= 0);
+
+        demand.replaceAll((resource, count) -> {
+            var q = quota.get(resource);
+            if (q != null && count > q) {
+                LOGGER.warn("class '{}' requires {} {} but the quota is {}", c.getSimpleName(), count, resource, q);
+                return q;
+            }
+            return count;
+        });
+        return demand;
+    }
+
+    /**
+     * @param value the comma separated resource quota (ex: kafka-standard=2,kafka-developer=1,service-account=20)
+     * @return the quota by resource
+     * @throws IllegalArgumentException if the value is malformed, so that the error names TEST_RESOURCE_QUOTA
+     *                                  instead of failing the class initialization with a parsing exception
+     */
+    static Map<String, Integer> parseQuota(String value) {
+        if (value == null || value.isBlank()) {
+            return Map.of();
+        }
+
+        var quota = new HashMap<String, Integer>();
+        for (var entry : value.split(",")) {
+            var e = entry.trim();
+            if (e.isEmpty()) {
+                continue;
+            }
+
+            var parts = e.split("=", 2);
+            var resource = parts[0].trim();
+            if (parts.length != 2 || resource.isEmpty()) {
+                throw invalidQuota(value, String.format("'%s' is not in the form <resource>=<count>", e));
+            }
+
+            int count;
+            try {
+                count = Integer.parseInt(parts[1].trim());
+            } catch (NumberFormatException ex) {
+                throw invalidQuota(value, String.format("the quota of '%s' is not a number", resource));
+            }
+            if (count < 0) {
+                throw invalidQuota(value, String.format("the quota of '%s' is negative", resource));
+            }
+            if (quota.put(resource, count) != null) {
+                throw invalidQuota(value, String.format("the quota of '%s' is repeated", resource));
+            }
+        }
+        return quota;
+    }
+
+    private static IllegalArgumentException invalidQuota(String value, String reason) {
+        return new IllegalArgumentException(String.format("invalid TEST_RESOURCE_QUOTA '%s': %s", value, reason));
+    }
+}
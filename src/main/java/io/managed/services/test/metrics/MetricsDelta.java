@@ -0,0 +1,72 @@
+package io.managed.services.test.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * All changed series between two {@link MetricsSnapshot}
+ */
+public class MetricsDelta {
+
+    private final List<SeriesChange> changes;
+
+    private MetricsDelta(List<SeriesChange> changes) {
+        this.changes = Collections.unmodifiableList(changes);
+    }
+
+    /**
+     * Compare the two snapshots in linear time and collect the series that have been added, removed or
+     * whose value is changed.
+     */
+    public static MetricsDelta between(MetricsSnapshot previous, MetricsSnapshot current) {
+        var changes = new ArrayList<SeriesChange>();
+
+        for (var name : current.names()) {
+            var before = previous.series(name);
+            for (var e : current.series(name).entrySet()) {
+                var old = before.get(e.getKey());
+                if (!Objects.equals(old, e.getValue())) {
+                    changes.add(new SeriesChange(name, e.getKey(), old, e.getValue()));
+                }
+            }
+        }
+
+        for (var name : previous.names()) {
+            var after = current.series(name);
+            for (var e : previous.series(name).entrySet()) {
+                if (!after.containsKey(e.getKey())) {
+                    changes.add(new SeriesChange(name, e.getKey(), e.getValue(), null));
+                }
+            }
+        }
+
+        return new MetricsDelta(changes);
+    }
+
+    public List<SeriesChange> getChanges() {
+        return changes;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * @return the changes of the metric for all series that have at least the given labels
+     */
+    public List<SeriesChange> changes(String name, Map<String, String> labels) {
+        return changes.stream()
+            .filter(c -> name.equals(c.getName()))
+            .filter(c -> c.getLabels().entrySet().containsAll(labels.entrySet()))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return changes.toString();
+    }
+}
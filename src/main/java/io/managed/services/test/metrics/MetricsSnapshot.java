@@ -0,0 +1,102 @@
+package io.managed.services.test.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable set of metric samples indexed by metric name and then by label set.
+ * <p>
+ * The labels never include the __name__ label, use {@link Builder} to create a new snapshot.
+ */
+public class MetricsSnapshot {
+
+    private final Map<String, Map<Map<String, String>, Double>> metrics;
+    private final Map<String, String> types;
+
+    private MetricsSnapshot(Map<String, Map<Map<String, String>, Double>> metrics, Map<String, String> types) {
+        this.metrics = metrics;
+        this.types = types;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Set<String> names() {
+        return metrics.keySet();
+    }
+
+    public boolean contains(String name) {
+        return metrics.containsKey(name);
+    }
+
+    /**
+     * @return the type declared with the # TYPE comment like gauge or counter
+     */
+    public Optional<String> type(String name) {
+        return Optional.ofNullable(types.get(name));
+    }
+
+    /**
+     * @return all series of the metric by label set or an empty map
+     */
+    public Map<Map<String, String>, Double> series(String name) {
+        return metrics.getOrDefault(name, Map.of());
+    }
+
+    /**
+     * @return the value of the first series of the metric, useful for metrics that have a single series
+     */
+    public Optional<Double> value(String name) {
+        return series(name).values().stream().findFirst();
+    }
+
+    /**
+     * @return the value of the series with exactly the given labels
+     */
+    public Optional<Double> value(String name, Map<String, String> labels) {
+        return Optional.ofNullable(series(name).get(labels));
+    }
+
+    /**
+     * @return the sum of all series of the metric that have at least the given labels
+     */
+    public double sum(String name, Map<String, String> labels) {
+        return series(name).entrySet().stream()
+            .filter(e -> e.getKey().entrySet().containsAll(labels.entrySet()))
+            .mapToDouble(Map.Entry::getValue)
+            .sum();
+    }
+
+    /**
+     * @return the number of series in the snapshot
+     */
+    public int size() {
+        return metrics.values().stream().mapToInt(Map::size).sum();
+    }
+
+    public static class Builder {
+        private final Map<String, Map<Map<String, String>, Double>> metrics = new LinkedHashMap<>();
+        private final Map<String, String> types = new HashMap<>();
+
+        public Builder add(String name, Map<String, String> labels, double value) {
+            metrics.computeIfAbsent(name, k -> new LinkedHashMap<>()).put(Collections.unmodifiableMap(labels), value);
+            return this;
+        }
+
+        public Builder type(String name, String type) {
+            types.put(name, type);
+            return this;
+        }
+
+        public MetricsSnapshot build() {
+            var m = new LinkedHashMap<String, Map<Map<String, String>, Double>>();
+            metrics.forEach((k, v) -> m.put(k, Collections.unmodifiableMap(new LinkedHashMap<>(v))));
+            return new MetricsSnapshot(Collections.unmodifiableMap(m), Map.copyOf(types));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package io.managed.services.test.metrics;
+
+import io.managed.services.test.ThrowingSupplier;
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Poll a source of {@link MetricsSnapshot} at a fixed interval and pass to the listener only the series
+ * that changed since the previous poll.
+ * <p>
+ * The first poll is used as baseline and is not reported, failed polls are logged and skipped.
+ */
+@Log4j2
+public class MetricsWatcher implements AutoCloseable {
+
+    private final ThrowingSupplier<MetricsSnapshot, ? extends Exception> source;
+    private final Duration interval;
+    private final Consumer<MetricsDelta> listener;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        var t = new Thread(r, "metrics-watcher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile MetricsSnapshot last;
+
+    public MetricsWatcher(
+        ThrowingSupplier<MetricsSnapshot, ? extends Exception> source,
+        Duration interval,
+        Consumer<MetricsDelta> listener) {
+
+        this.source = source;
+        this.interval = interval;
+        this.listener = listener;
+    }
+
+    public MetricsWatcher start() {
+        executor.scheduleWithFixedDelay(this::poll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * @return the last polled snapshot or null if none of the polls succeeded yet
+     */
+    public MetricsSnapshot getLast() {
+        return last;
+    }
+
+    private void poll() {
+        MetricsSnapshot current;
+        try {
+            current = source.get();
+        } catch (Exception e) {
+            log.warn("failed to poll the metrics: ", e);
+            return;
+        }
+
+        var previous = last;
+        last = current;
+        if (previous == null) {
+            return;
+        }
+
+        var delta = MetricsDelta.between(previous, current);
+        if (!delta.isEmpty()) {
+            log.debug("metrics changed: {}", delta);
+            try {
+                listener.accept(delta);
+            } catch (RuntimeException e) {
+                // an exception would cancel the next polls
+                log.error("metrics listener failed: ", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
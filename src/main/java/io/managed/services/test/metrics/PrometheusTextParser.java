@@ -0,0 +1,156 @@
+package io.managed.services.test.metrics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Single pass parser of the Prometheus text exposition format.
+ * <p>
+ * The input is read line by line without regular expressions and all samples are collected in a
+ * {@link MetricsSnapshot}, the # TYPE comments are preserved while the # HELP comments and the timestamps are ignored.
+ */
+public class PrometheusTextParser {
+
+    public static MetricsSnapshot parse(String text) {
+        try {
+            return parse(new StringReader(text));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static MetricsSnapshot parse(Reader reader) throws IOException {
+        var builder = MetricsSnapshot.builder();
+        var in = new BufferedReader(reader);
+
+        var number = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            number++;
+            try {
+                parseLine(builder, line.strip());
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(String.format("invalid metric at line %d: %s", number, line), e);
+            }
+        }
+        return builder.build();
+    }
+
+    private static void parseLine(MetricsSnapshot.Builder builder, String line) {
+        if (line.isEmpty()) {
+            return;
+        }
+
+        if (line.startsWith("#")) {
+            var parts = line.split("\\s+", 4);
+            if (parts.length == 4 && "TYPE".equals(parts[1])) {
+                builder.type(parts[2], parts[3]);
+            }
+            return;
+        }
+
+        var cursor = new Cursor(line);
+        var name = cursor.readName();
+        var labels = cursor.peek() == '{' ? cursor.readLabels() : Map.<String, String>of();
+
+        // the value is followed by an optional timestamp
+        var value = cursor.rest().split("\\s+", 2)[0];
+        builder.add(name, labels, parseValue(value));
+    }
+
+    public static double parseValue(String value) {
+        switch (value) {
+            case "+Inf":
+                return Double.POSITIVE_INFINITY;
+            case "-Inf":
+                return Double.NEGATIVE_INFINITY;
+            case "NaN":
+                return Double.NaN;
+            default:
+                return Double.parseDouble(value);
+        }
+    }
+
+    private static class Cursor {
+        private final String line;
+        private int i = 0;
+
+        Cursor(String line) {
+            this.line = line;
+        }
+
+        char peek() {
+            return i < line.length() ? line.charAt(i) : 0;
+        }
+
+        String readName() {
+            var start = i;
+            while (i < line.length() && line.charAt(i) != '{' && !Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            if (start == i) {
+                throw new IllegalArgumentException("missing metric name");
+            }
+            return line.substring(start, i);
+        }
+
+        Map<String, String> readLabels() {
+            var labels = new LinkedHashMap<String, String>();
+            // skip the {
+            i++;
+            while (true) {
+                skip(',');
+                if (peek() == '}') {
+                    i++;
+                    return labels;
+                }
+
+                var eq = line.indexOf('=', i);
+                if (eq < 0) {
+                    throw new IllegalArgumentException("missing = after label name");
+                }
+                var name = line.substring(i, eq).strip();
+                i = eq + 1;
+                skip(' ');
+                labels.put(name, readQuoted());
+            }
+        }
+
+        private String readQuoted() {
+            if (peek() != '"') {
+                throw new IllegalArgumentException("label value must be quoted");
+            }
+            i++;
+
+            var value = new StringBuilder();
+            while (i < line.length()) {
+                var c = line.charAt(i++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c == '\\' && i < line.length()) {
+                    var escaped = line.charAt(i++);
+                    value.append(escaped == 'n' ? '\n' : escaped);
+                } else {
+                    value.append(c);
+                }
+            }
+            throw new IllegalArgumentException("unterminated label value");
+        }
+
+        private void skip(char c) {
+            while (i < line.length() && (line.charAt(i) == c || Character.isWhitespace(line.charAt(i)))) {
+                i++;
+            }
+        }
+
+        String rest() {
+            return line.substring(i).strip();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.managed.services.test.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * A series that has been added, removed or whose value has changed between two {@link MetricsSnapshot}
+ */
+@Getter
+@AllArgsConstructor
+public class SeriesChange {
+
+    private final String name;
+    private final Map<String, String> labels;
+
+    /**
+     * Null if the series didn't exist in the previous snapshot
+     */
+    @Nullable
+    private final Double previous;
+
+    /**
+     * Null if the series doesn't exist anymore in the current snapshot
+     */
+    @Nullable
+    private final Double current;
+
+    public boolean isAdded() {
+        return previous == null;
+    }
+
+    public boolean isRemoved() {
+        return current == null;
+    }
+
+    /**
+     * @return the difference between the current and the previous value where a missing value counts as zero
+     */
+    public double delta() {
+        return (current == null ? 0 : current) - (previous == null ? 0 : previous);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s: %s -> %s", name, labels, previous, current);
+    }
+}
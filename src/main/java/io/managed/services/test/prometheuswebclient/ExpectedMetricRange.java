@@ -0,0 +1,79 @@
+package io.managed.services.test.prometheuswebclient;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Assertion that the value returned by a query increases by the expected amount, within a percentage of error,
+ * from a previously observed value.
+ * <p>
+ * Some of the metrics may decrease between the time the snapshot is taken and the time the data is produced
+ * therefore if the observed value drops below the previous value (e.g. a counter reset), it replaces the
+ * previous value.
+ */
+@Log4j2
+@Getter
+public class ExpectedMetricRange {
+
+    public enum Status {
+        PENDING,
+        CONVERGED,
+        // the observed increase is already above the expected range
+        DIVERGED,
+    }
+
+    private final String name;
+    private final PrometheusWebClient.Query query;
+    private final double expectedIncrease;
+    private final double errorRangePercentage;
+
+    private double previous;
+    private Double observed;
+    private Double differencePercentage;
+    private Status status = Status.PENDING;
+
+    public ExpectedMetricRange(String name, PrometheusWebClient.Query query, double previous, double expectedIncrease, double errorRangePercentage) {
+        this.name = name;
+        this.query = query;
+        this.previous = previous;
+        this.expectedIncrease = expectedIncrease;
+        this.errorRangePercentage = errorRangePercentage;
+    }
+
+    /**
+     * Compare the newly observed value with the expected range and update the status
+     *
+     * @param value The newly observed value
+     * @return the updated status
+     */
+    public synchronized Status observe(double value) {
+        observed = value;
+
+        // how many % from the expected increase the observed increase is, e.g. expect 200 bytes, observed 80, difference is -60%
+        var observedIncrease = value - previous;
+        var difference = (observedIncrease - expectedIncrease) / (expectedIncrease / 100);
+        differencePercentage = difference;
+        log.info("metric '{}' observed difference %: {}", name, difference);
+
+        if (difference < -100.0) {
+            log.debug("newly observed value of '{}' is smaller than previously observed value, correcting expected value", name);
+            previous = value;
+        }
+
+        // information about if there was too little/ many data produced is important as well, so check from both side is made
+        if (difference > -errorRangePercentage && difference < errorRangePercentage) {
+            status = Status.CONVERGED;
+        } else if (difference >= errorRangePercentage) {
+            status = Status.DIVERGED;
+        } else {
+            status = Status.PENDING;
+        }
+        return status;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s %s: previous=%s observed=%s expected increase=%s difference=%s%% (+/-%s%%)",
+            name, status, previous, observed, expectedIncrease, differencePercentage, errorRangePercentage);
+    }
+}
@@ -0,0 +1,117 @@
+package io.managed.services.test.prometheuswebclient;
+
+import io.managed.services.test.ThrowingFunction;
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static io.managed.services.test.TestUtils.waitFor;
+
+/**
+ * Watch multiple {@link ExpectedMetricRange} in a single polling loop, at each tick all pending metrics are
+ * queried concurrently with {@link PrometheusWebClient#queryAll} and the watch ends as soon as all metrics
+ * converged or any diverged.
+ * <p>
+ * Converged metrics are not queried anymore.
+ */
+@Log4j2
+public class MetricRangeWatcher {
+
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(6);
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(10);
+
+    private final PrometheusWebClient client;
+    private final Map<String, ExpectedMetricRange> ranges = new LinkedHashMap<>();
+
+    public MetricRangeWatcher(PrometheusWebClient client) {
+        this.client = client;
+    }
+
+    public MetricRangeWatcher expect(String name, PrometheusWebClient.Query query, double previous, double expectedIncrease, double errorRangePercentage) {
+        ranges.put(name, new ExpectedMetricRange(name, query, previous, expectedIncrease, errorRangePercentage));
+        return this;
+    }
+
+    public Map<String, ExpectedMetricRange> getRanges() {
+        return Collections.unmodifiableMap(ranges);
+    }
+
+    /**
+     * Poll the metrics until all converged, any diverged or the timeout is reached without failing,
+     * the outcome of each metric can then be verified with {@link ExpectedMetricRange#getStatus()}.
+     *
+     * @return the ranges by name
+     */
+    public Map<String, ExpectedMetricRange> watch() throws InterruptedException {
+        return watch(DEFAULT_INTERVAL, DEFAULT_TIMEOUT);
+    }
+
+    public Map<String, ExpectedMetricRange> watch(Duration interval, Duration timeout) throws InterruptedException {
+        ThrowingFunction<Boolean, Boolean, RuntimeException> ready = last -> tick();
+
+        try {
+            waitFor("metrics to be ready", interval, timeout, ready);
+        } catch (TimeoutException e) {
+            log.warn("metrics not ready within expected time: {}", pending());
+        }
+
+        ranges.values().forEach(r -> log.info("{}", r));
+        return getRanges();
+    }
+
+    /**
+     * Like {@link #watch(Duration, Duration)} but fail if any of the metrics didn't converge.
+     */
+    public void waitAll(Duration interval, Duration timeout) throws PrometheusException, InterruptedException {
+        watch(interval, timeout);
+
+        var failed = ranges.values().stream()
+            .filter(r -> r.getStatus() != ExpectedMetricRange.Status.CONVERGED)
+            .map(ExpectedMetricRange::toString)
+            .collect(Collectors.toList());
+        if (!failed.isEmpty()) {
+            throw new PrometheusException(String.format("metrics not in the expected range: %s", failed));
+        }
+    }
+
+    private List<ExpectedMetricRange> pending() {
+        return ranges.values().stream()
+            .filter(r -> r.getStatus() == ExpectedMetricRange.Status.PENDING)
+            .collect(Collectors.toList());
+    }
+
+    private boolean tick() {
+        var pending = pending();
+        var queries = pending.stream().map(ExpectedMetricRange::getQuery).collect(Collectors.toList());
+
+        List<QueryResult> results;
+        try {
+            results = client.queryAll(queries);
+        } catch (PrometheusException e) {
+            log.warn("failed to query the metrics, retry at the next interval: ", e);
+            return false;
+        }
+
+        var statuses = new ArrayList<ExpectedMetricRange.Status>();
+        for (var i = 0; i < pending.size(); i++) {
+            var result = results.get(i);
+            if (result.data == null || result.data.result.isEmpty()) {
+                log.info("metric '{}' not available yet", pending.get(i).getName());
+                continue;
+            }
+            statuses.add(pending.get(i).observe(result.data.result.get(0).doubleValue()));
+        }
+
+        if (statuses.contains(ExpectedMetricRange.Status.DIVERGED)) {
+            return true;
+        }
+        return pending().isEmpty();
+    }
+}
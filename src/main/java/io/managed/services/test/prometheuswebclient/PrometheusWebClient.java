@@ -1,20 +1,31 @@
 package io.managed.services.test.prometheuswebclient;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import jakarta.ws.rs.core.UriBuilder;
 import lombok.extern.log4j.Log4j2;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
+import okhttp3.Response;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.net.MalformedURLException;
-import java.net.URLEncoder;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 @Log4j2
 public class PrometheusWebClient {
@@ -26,6 +37,14 @@ public class PrometheusWebClient {
     private Map<String, String> headersMap;
     private OkHttpClient httpClient;
 
+    // max time to wait for a query, including the time waiting for a free connection of the shared client
+    private static final Duration AWAIT_TIMEOUT = Duration.ofMinutes(2);
+
+    // readers are immutable and thread safe therefore all clients can share the same one
+    private static final ObjectReader READER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .readerFor(QueryResult.class);
+
     // constructor for builder
     public PrometheusWebClient(String baseUrl, String urlResourcePath, Map<String, String> headersMap, OkHttpClient httpClient) {
         this.baseUrl = baseUrl;
@@ -39,43 +58,117 @@ public class PrometheusWebClient {
     }
 
     public QueryResult query(String query) throws PrometheusException {
+        return await(queryAsync(query));
+    }
 
-        var builder = UriBuilder.fromPath(baseUrl);
-        builder.path(urlResourcePath);
+    public QueryResult queryRange(String query, Instant start, Instant end, Duration step) throws PrometheusException {
+        return await(queryRangeAsync(query, start, end, step));
+    }
 
-        try {
-            builder.queryParam("query", URLEncoder.encode(query, "ISO-8859-1"));
-        } catch (UnsupportedEncodingException ex) {
-            throw new PrometheusException(ex);
+    /**
+     * Execute the instant query without blocking the caller thread.
+     */
+    public CompletableFuture<QueryResult> queryAsync(String query) {
+        return send(urlResourcePath, Map.of("query", query));
+    }
+
+    /**
+     * Execute the range query (query_range) without blocking the caller thread.
+     */
+    public CompletableFuture<QueryResult> queryRangeAsync(String query, Instant start, Instant end, Duration step) {
+        var params = new LinkedHashMap<String, String>();
+        params.put("query", query);
+        params.put("start", String.valueOf(start.getEpochSecond()));
+        params.put("end", String.valueOf(end.getEpochSecond()));
+        params.put("step", step.toSeconds() + "s");
+        return send(urlResourcePath + "_range", params);
+    }
+
+    /**
+     * Execute all instant queries concurrently and wait for all of them, so that the total time is about
+     * the time of the slowest query.
+     *
+     * @param queries The queries to execute
+     * @return the results in the same order of the queries
+     */
+    public List<QueryResult> queryAll(List<Query> queries) throws PrometheusException {
+        var futures = queries.stream()
+            .map(q -> queryAsync(q.toString()))
+            .collect(Collectors.toList());
+
+        var results = new ArrayList<QueryResult>();
+        for (var f : futures) {
+            results.add(await(f));
         }
+        return results;
+    }
+
+    private CompletableFuture<QueryResult> send(String path, Map<String, String> params) {
 
-        var uri = builder.build();
+        // the UriBuilder would treat the braces of the PromQL selectors as URI templates, therefore the query
+        // parameters are added and encoded once by the OkHttp HttpUrl builder
         Request request;
         try {
+            var url = HttpUrl.get(UriBuilder.fromPath(baseUrl).path(path).build().toString()).newBuilder();
+            for (var param : params.entrySet()) {
+                url.addQueryParameter(param.getKey(), param.getValue());
+            }
+
             var requestBuilder = new Request
                     .Builder()
-                    .url(uri.toURL());
+                    .url(url.build());
             // add all provided headers
             for (Map.Entry<String, String> entry : headersMap.entrySet()) {
                 requestBuilder.addHeader(entry.getKey(), entry.getValue());
             }
             request = requestBuilder.build();
 
-        } catch (MalformedURLException ex) {
-            throw new PrometheusException(ex);
+        } catch (IllegalArgumentException ex) {
+            return CompletableFuture.failedFuture(new PrometheusException(ex));
         }
 
+        var future = new CompletableFuture<QueryResult>();
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(new PrometheusException(e));
+            }
 
-        try (var response = httpClient.newCall(request).execute()) {
-            // all successful requests to Observatorium return 200
-            if (response.code() != 200) {
-                throw new PrometheusException(String.format("expected 200 but got %d", response.code()));
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    // all successful requests to Observatorium return 200
+                    if (response.code() != 200) {
+                        throw new PrometheusException(String.format("expected 200 but got %d", response.code()));
+                    }
+
+                    // parse directly from the response stream without buffering the whole body
+                    future.complete(READER.readValue(response.body().byteStream()));
+                } catch (PrometheusException ex) {
+                    future.completeExceptionally(ex);
+                } catch (Exception ex) {
+                    // any failure must complete the future otherwise the caller would wait until the timeout
+                    future.completeExceptionally(new PrometheusException(ex));
+                }
             }
+        });
+        return future;
+    }
 
-            ObjectMapper mapper = new ObjectMapper();
-            return mapper.readValue(response.body().string(), QueryResult.class);
-        } catch (IOException ex) {
-            throw new PrometheusException(ex);
+    private static QueryResult await(CompletableFuture<QueryResult> future) throws PrometheusException {
+        try {
+            return future.get(AWAIT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PrometheusException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PrometheusException) {
+                throw (PrometheusException) e.getCause();
+            }
+            throw new PrometheusException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PrometheusException(e);
         }
     }
 
@@ -9,7 +9,9 @@ public class PrometheusWebClientBuilder {
     private String baseUrl;
     private String urlResourcePath;
     private final Map<String, String> headersMap = new HashMap<>();
-    private final OkHttpClient httpClient = new OkHttpClient();
+
+    // shared by all clients so that concurrent queries reuse the same connection pool
+    private static final OkHttpClient HTTP_CLIENT = new OkHttpClient();
 
 
     public PrometheusWebClientBuilder withBaseUrl(String baseUrl) {
@@ -32,7 +34,7 @@ public class PrometheusWebClientBuilder {
                 this.baseUrl,
                 this.urlResourcePath,
                 this.headersMap,
-                this.httpClient
+                HTTP_CLIENT
         );
     }
 }
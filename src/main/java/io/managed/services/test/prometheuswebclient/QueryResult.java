@@ -2,8 +2,10 @@ package io.managed.services.test.prometheuswebclient;
 
 import org.joda.time.DateTime;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 public class QueryResult {
     public String status;
@@ -14,10 +16,33 @@ public class QueryResult {
         public List<Result> result;
     }
 
+    /**
+     * @return all results as typed series, instant queries return a single sample for each series
+     */
+    public List<Series> series() {
+        return data.result.stream().map(Result::toSeries).collect(Collectors.toList());
+    }
+
     public static class Result {
         public Map<String, String> metric;
+
+        // set by instant queries (vector)
         public List<Object> value;
 
+        // set by range queries (matrix)
+        public List<List<Object>> values;
+
+        public Series toSeries() {
+            var samples = new ArrayList<Series.Sample>();
+            if (value != null) {
+                samples.add(Series.Sample.of(value));
+            }
+            if (values != null) {
+                values.forEach(v -> samples.add(Series.Sample.of(v)));
+            }
+            return new Series(metric == null ? Map.of() : metric, samples);
+        }
+
         public DateTime time() {
             return new DateTime(Double.valueOf((double) value.get(0)).longValue() * 1000);
         }
@@ -0,0 +1,49 @@
+package io.managed.services.test.prometheuswebclient;
+
+import io.managed.services.test.metrics.PrometheusTextParser;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed time series returned by an instant or range query
+ */
+@Getter
+public class Series {
+
+    private final Map<String, String> labels;
+    private final List<Sample> samples;
+
+    public Series(Map<String, String> labels, List<Sample> samples) {
+        this.labels = Collections.unmodifiableMap(labels);
+        this.samples = Collections.unmodifiableList(samples);
+    }
+
+    /**
+     * @return the last sample value or NaN if the series is empty
+     */
+    public double lastValue() {
+        return samples.isEmpty() ? Double.NaN : samples.get(samples.size() - 1).getValue();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Sample {
+        private final Instant time;
+        private final double value;
+
+        /**
+         * @param pair The [unix timestamp, "value"] pair of the Prometheus API
+         */
+        static Sample of(List<Object> pair) {
+            var seconds = ((Number) pair.get(0)).doubleValue();
+            var time = Instant.ofEpochMilli((long) (seconds * 1000));
+            // the value is a string that can also be NaN or +Inf
+            return new Sample(time, PrometheusTextParser.parseValue(pair.get(1).toString()));
+        }
+    }
+}
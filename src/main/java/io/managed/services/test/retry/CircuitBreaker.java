@@ -0,0 +1,57 @@
+package io.managed.services.test.retry;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per endpoint circuit breaker used by the {@link io.managed.services.test.RetryUtils} to stop retrying calls
+ * to an endpoint that keeps failing.
+ * <p>
+ * After FAILURE_THRESHOLD consecutive retryable failures the breaker opens and for OPEN_DURATION all calls to the
+ * endpoint are attempted only once without retries. Once the OPEN_DURATION is passed the next failure opens
+ * it again while the first success closes it.
+ */
+@Log4j2
+public class CircuitBreaker {
+
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    private final String endpoint;
+    private int failures = 0;
+    private Instant openUntil = null;
+
+    private CircuitBreaker(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public static CircuitBreaker of(String endpoint) {
+        return BREAKERS.computeIfAbsent(endpoint, CircuitBreaker::new);
+    }
+
+    public synchronized boolean isOpen() {
+        return openUntil != null && Instant.now().isBefore(openUntil);
+    }
+
+    public synchronized void onSuccess() {
+        if (openUntil != null) {
+            log.info("circuit breaker for '{}' closed", endpoint);
+        }
+        failures = 0;
+        openUntil = null;
+    }
+
+    public synchronized void onFailure() {
+        failures++;
+        if (failures >= FAILURE_THRESHOLD && !isOpen()) {
+            log.warn("circuit breaker for '{}' opened after {} consecutive failures", endpoint, failures);
+            openUntil = Instant.now().plus(OPEN_DURATION);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.managed.services.test.retry;
+
+import io.managed.services.test.Environment;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global retry budget for the whole launch.
+ * <p>
+ * The number of retries can not exceed RETRY_BUDGET_MIN plus RETRY_BUDGET_RATIO times the number of calls
+ * performed through the {@link io.managed.services.test.RetryUtils}, once the budget is exhausted all failures
+ * are returned immediately until enough new calls succeed.
+ */
+@Log4j2
+public class RetryBudget {
+
+    private static final AtomicLong CALLS = new AtomicLong();
+    private static final AtomicLong RETRIES = new AtomicLong();
+    private static final AtomicBoolean EXHAUSTED = new AtomicBoolean(false);
+
+    public static void onCall() {
+        CALLS.incrementAndGet();
+    }
+
+    public static boolean tryAcquire() {
+        while (true) {
+            var retries = RETRIES.get();
+            var limit = Environment.RETRY_BUDGET_MIN + (long) (Environment.RETRY_BUDGET_RATIO * CALLS.get());
+            if (retries >= limit) {
+                if (EXHAUSTED.compareAndSet(false, true)) {
+                    log.warn("retry budget exhausted after {} retries on {} calls", retries, CALLS.get());
+                }
+                return false;
+            }
+            if (RETRIES.compareAndSet(retries, retries + 1)) {
+                EXHAUSTED.set(false);
+                return true;
+            }
+        }
+    }
+}
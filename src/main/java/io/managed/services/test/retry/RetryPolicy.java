@@ -0,0 +1,100 @@
+package io.managed.services.test.retry;
+
+import io.managed.services.test.client.exception.ApiToManyRequestsException;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Describe when and how long to wait before retrying a failed call.
+ * <p>
+ * The wait between each attempt grows exponentially from the initialInterval up to the maxInterval and the actual
+ * delay is the minInterval plus a random jitter between zero and the computed ceiling, so that calls failing at the
+ * same moment are not retried all together while each retry still waits at least the minInterval, like the fixed
+ * 1s, 4s, 7s... schedule that preceded the policies. If the failure is a {@link ApiToManyRequestsException} with a Retry-After
+ * hint, the hint is used as lower bound for the delay.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class RetryPolicy {
+
+    public static final RetryPolicy DEFAULT = RetryPolicy.builder().build();
+
+    /**
+     * The max number of retries after the first attempt
+     */
+    @Builder.Default
+    private final int attempts = 5;
+
+    /**
+     * The min wait before each retry, the jitter is added on top of it
+     */
+    @Builder.Default
+    private final Duration minInterval = Duration.ofSeconds(1);
+
+    @Builder.Default
+    private final Duration initialInterval = Duration.ofSeconds(1);
+
+    @Builder.Default
+    private final Duration maxInterval = Duration.ofSeconds(30);
+
+    @Builder.Default
+    private final double multiplier = 2;
+
+    /**
+     * The max time we are willing to wait if the server asks us to back off with a Retry-After header
+     */
+    @Builder.Default
+    private final Duration maxRetryAfter = Duration.ofMinutes(2);
+
+    @Builder.Default
+    private final Function<Throwable, Boolean> condition = t -> true;
+
+    /**
+     * Disable it for calls that are expected to fail many times in a row, like waiting for capacity
+     */
+    @Builder.Default
+    private final boolean circuitBreaker = true;
+
+    public RetryPolicy withCondition(Function<Throwable, Boolean> condition) {
+        return toBuilder().condition(condition).build();
+    }
+
+    public RetryPolicy withAttempts(int attempts) {
+        return toBuilder().attempts(attempts).build();
+    }
+
+    public boolean isRetryable(Throwable t) {
+        return condition.apply(t);
+    }
+
+    /**
+     * @param attempt The number of retries already performed
+     * @param t       The failure of the last attempt
+     * @return the time to wait before the next attempt
+     */
+    public Duration backoff(int attempt, Throwable t) {
+        var ceiling = Math.min(maxInterval.toMillis(), initialInterval.toMillis() * Math.pow(multiplier, attempt));
+        var delay = minInterval.toMillis() + (long) (ThreadLocalRandom.current().nextDouble() * ceiling);
+
+        var retryAfter = retryAfter(t);
+        if (retryAfter.isPresent()) {
+            // wait at least what the server asked and add the jitter on top of it
+            delay += Math.min(retryAfter.get().toMillis(), maxRetryAfter.toMillis());
+        }
+        return Duration.ofMillis(delay);
+    }
+
+    private static Optional<Duration> retryAfter(Throwable t) {
+        for (var c = t; c != null; c = c.getCause()) {
+            if (c instanceof ApiToManyRequestsException) {
+                return ((ApiToManyRequestsException) c).getRetryAfter();
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -2,13 +2,15 @@ package io.managed.services.test;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.managed.services.test.framework.KafkaInstancePoolListener;
+import io.managed.services.test.framework.MetricsPushListener;
 import io.managed.services.test.framework.TestListener;
 import io.vertx.core.json.jackson.DatabindCodec;
 import lombok.extern.log4j.Log4j2;
 import org.testng.annotations.Listeners;
 
 @Log4j2
-@Listeners({TestListener.class})
+@Listeners({TestListener.class, KafkaInstancePoolListener.class, MetricsPushListener.class})
 public abstract class TestBase {
 
     static {
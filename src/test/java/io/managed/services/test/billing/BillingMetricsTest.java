@@ -17,9 +17,10 @@ import io.managed.services.test.client.kafkainstance.KafkaInstanceApiAccessUtils
 import io.managed.services.test.client.kafkainstance.KafkaInstanceApiUtils;
 import io.managed.services.test.client.kafkamgmt.KafkaMgmtApi;
 import io.managed.services.test.client.kafkamgmt.KafkaMgmtApiUtils;
-import io.managed.services.test.client.kafkamgmt.KafkaMgmtMetricsUtils;
 import io.managed.services.test.client.securitymgmt.SecurityMgmtAPIUtils;
 import io.managed.services.test.client.securitymgmt.SecurityMgmtApi;
+import io.managed.services.test.prometheuswebclient.ExpectedMetricRange;
+import io.managed.services.test.prometheuswebclient.MetricRangeWatcher;
 import io.managed.services.test.prometheuswebclient.PrometheusWebClient;
 import io.managed.services.test.prometheuswebclient.PrometheusWebClientBuilder;
 import io.managed.services.test.prometheuswebclient.QueryResult;
@@ -32,9 +33,11 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static io.managed.services.test.TestUtils.bwait;
 import static io.managed.services.test.TestUtils.message;
@@ -72,6 +75,7 @@ public class BillingMetricsTest extends TestBase {
     private KafkaInstanceApi kafkaInstanceApi;
 
     private Map<String, PrometheusWebClient.Snapshot> metricToSnapshotMap = new HashMap<>();
+    private Map<String, ExpectedMetricRange> metricRanges = Map.of();
 
     // TODO metrics will soon be renamed to match new naming convention, more at MGDSTRM-7080.
     private static final String METRIC_STORAGE = "kafka_broker_quota_totalstorageusedbytes";
@@ -167,17 +171,18 @@ public class BillingMetricsTest extends TestBase {
     @Test(enabled = true)
     @SneakyThrows
     public void takeMetricsSnapshot() {
-        for (Map.Entry<String, PrometheusWebClient.Snapshot> entryMetricToSnapshot : metricToSnapshotMap.entrySet()) {
+        var entries = new ArrayList<>(metricToSnapshotMap.entrySet());
+        var queries = entries.stream().map(e -> e.getValue().getQuery()).collect(Collectors.toList());
 
-            var snapshot = entryMetricToSnapshot.getValue();
-            var queryResult = prometheusWebClient.query(snapshot.getQuery());
-            log.debug("taking snapshot for metric '{}', with endpoint: '{}'",
-                entryMetricToSnapshot.getKey(),
-                snapshot.getQuery().toString());
-            var observedReturnedValue = queryResult.data.result.get(0).doubleValue();
+        // query all metrics concurrently so that the snapshots are taken at about the same time
+        log.debug("taking snapshot for metrics with queries: '{}'", queries);
+        var results = prometheusWebClient.queryAll(queries);
 
-            snapshot.setObservedValue(observedReturnedValue);
-            log.info("setting observed value for metric '{}'", entryMetricToSnapshot.getKey());
+        for (var i = 0; i < entries.size(); i++) {
+            var observedReturnedValue = results.get(i).data.result.get(0).doubleValue();
+
+            entries.get(i).getValue().setObservedValue(observedReturnedValue);
+            log.info("setting observed value for metric '{}'", entries.get(i).getKey());
         }
 
         log.info("all snapshots successfully taken");
@@ -225,70 +230,62 @@ public class BillingMetricsTest extends TestBase {
             KafkaAuthMethod.OAUTH));
     }
 
-    @Test(priority = 1, dependsOnMethods = {"invokeDataProduction"}, enabled = true)
+    @Test(priority = 3, dependsOnMethods = {"invokeDataProduction", "invokeDataConsumption"}, enabled = true)
     @SneakyThrows
-    public void testMetricStorageIncreased() {
+    public void waitForMetrics() {
 
-        log.info("test correct storage increase metric when data are produced");
-        // storage before increasing (value snapshot created even before data were produced)
-        double oldStorageTotal = metricToSnapshotMap.get(METRIC_STORAGE).getObservedValue();
+        var watcher = new MetricRangeWatcher(prometheusWebClient);
 
         // expected increased value in used space across kafka brokers, i.e, produced bytes (messageSize * messageCount) * number of replicas (3).
-        double expectedIncrease = this.messageSize * this.messageCount * 3;
-        log.info("expected increase in size: {}", expectedIncrease);
-
-        // waiting for metric to be increased within with 5 range
-        KafkaMgmtMetricsUtils.waitUntilExpectedMetricRange(
-            prometheusWebClient,
-            kafka.getId(),
+        watcher.expect(
+            METRIC_STORAGE,
             metricToSnapshotMap.get(METRIC_STORAGE).getQuery(),
-            oldStorageTotal,
-            expectedIncrease,
+            metricToSnapshotMap.get(METRIC_STORAGE).getObservedValue(),
+            this.messageSize * this.messageCount * 3,
             5.00);
-    }
-
-    @Test(priority = 1, dependsOnMethods = {"invokeDataProduction"}, enabled = true)
-    @SneakyThrows
-    public void testMetricIncomingTrafficIncreased() {
 
-        log.info("test correct incoming traffic metric increase when data are produced");
-        // storage before increasing (value snapshot created even before data were produced)
-        double oldTrafficInTotal = metricToSnapshotMap.get(METRIC_TRAFFIC_IN).getObservedValue();
-
-        // calculation of expected increased value in metric, i.e, conversion of produced bytes (messages * size).
-        double expectedIncrease = this.messageSize * this.messageCount;
-        log.info("expected increase in size: {}", expectedIncrease);
-
-        // waiting for metric to be increased within with 5 range
-        KafkaMgmtMetricsUtils.waitUntilExpectedMetricRange(
-            prometheusWebClient,
-            kafka.getId(),
+        // expected increased value in metric, i.e, conversion of produced bytes (messages * size).
+        watcher.expect(
+            METRIC_TRAFFIC_IN,
             metricToSnapshotMap.get(METRIC_TRAFFIC_IN).getQuery(),
-            oldTrafficInTotal,
-            expectedIncrease,
+            metricToSnapshotMap.get(METRIC_TRAFFIC_IN).getObservedValue(),
+            this.messageSize * this.messageCount,
             10);
+
+        // expected increased value in metric, i.e, conversion of produced bytes (messages * size) * number of consumers  + 15% for handshakes + metatada + extra packet size.
+        watcher.expect(
+            METRIC_TRAFFIC_OUT,
+            metricToSnapshotMap.get(METRIC_TRAFFIC_OUT).getQuery(),
+            metricToSnapshotMap.get(METRIC_TRAFFIC_OUT).getObservedValue(),
+            this.messageSize * this.messageCount * this.consumerCount * 1.15,
+            10.0);
+
+        // wait for all metrics in a single loop, the outcome of each metric is verified by the tests below
+        metricRanges = watcher.watch();
     }
 
-    @Test(priority = 2, enabled = true)
-    @SneakyThrows
-    public void testTrafficMetricOutIncreased() {
+    private void assertMetricConverged(String metric) {
+        var range = metricRanges.get(metric);
+        log.info("{}", range);
+        Assert.assertEquals(range.getStatus(), ExpectedMetricRange.Status.CONVERGED, message("metric not in the expected range: {}", range));
+    }
 
-        log.info("test correct outcoming traffic metric increase when data are consumed");
-        // storage before increasing (value snapshot created even before data were produced)
-        double oldTrafficOutTotal = metricToSnapshotMap.get(METRIC_TRAFFIC_OUT).getObservedValue();
+    @Test(priority = 3, dependsOnMethods = {"waitForMetrics"}, enabled = true)
+    public void testMetricStorageIncreased() {
+        log.info("test correct storage increase metric when data are produced");
+        assertMetricConverged(METRIC_STORAGE);
+    }
 
-        // expected increased value in metric, i.e, conversion of produced bytes (messages * size) * number of consumers  + 15% for handshakes + metatada + extra packet size.
-        double expectedIncrease = this.messageSize * this.messageCount * this.consumerCount * 1.15;
-        log.info("expected increase in size: {}", expectedIncrease);
+    @Test(priority = 3, dependsOnMethods = {"waitForMetrics"}, enabled = true)
+    public void testMetricIncomingTrafficIncreased() {
+        log.info("test correct incoming traffic metric increase when data are produced");
+        assertMetricConverged(METRIC_TRAFFIC_IN);
+    }
 
-        // waiting for metric to be increased within with 5 range
-        KafkaMgmtMetricsUtils.waitUntilExpectedMetricRange(
-            prometheusWebClient,
-            kafka.getId(),
-            metricToSnapshotMap.get(METRIC_TRAFFIC_OUT).getQuery(),
-            oldTrafficOutTotal,
-            expectedIncrease,
-            10.0);
+    @Test(priority = 3, dependsOnMethods = {"waitForMetrics"}, enabled = true)
+    public void testTrafficMetricOutIncreased() {
+        log.info("test correct outcoming traffic metric increase when data are consumed");
+        assertMetricConverged(METRIC_TRAFFIC_OUT);
     }
 
     @SneakyThrows
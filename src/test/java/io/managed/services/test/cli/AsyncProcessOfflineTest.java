@@ -0,0 +1,110 @@
+package io.managed.services.test.cli;
+
+import com.openshift.cloud.api.kas.auth.models.Record;
+import io.managed.services.test.TestBase;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Test that the pumps of the {@link AsyncProcess} drain and emit all the output of a local process, and that the
+ * captured output can be parsed.
+ */
+public class AsyncProcessOfflineTest extends TestBase {
+
+    // enough lines to overflow the default output buffer and spill to disk
+    private static final int LINES = 100_000;
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(1);
+
+    @Test
+    public void testAllLinesAreCapturedAndEmitted() throws IOException, ProcessException {
+        // the process ends with a line without the new line
+        var script = String.format(
+            "i=0; while [ $i -lt %d ]; do echo \"out $i\"; echo \"err $i\" >&2; i=$((i+1)); done; printf last",
+            LINES);
+
+        // the listener is passed to the constructor so that it receives also the lines written before it returns
+        var stdout = Collections.synchronizedList(new ArrayList<String>());
+        var stderr = Collections.synchronizedList(new ArrayList<String>());
+        Consumer<OutputLine> listener = l -> (OutputLine.STDOUT.equals(l.getStream()) ? stdout : stderr).add(l.getText());
+        var process = new AsyncProcess(new ProcessBuilder("sh", "-c", script).start(), List.of(listener));
+
+        // sync waits for the pumps to drain the output therefore all lines must be emitted when it returns
+        process.sync(TIMEOUT);
+
+        var expectedStdout = lines("out");
+        expectedStdout.add("last");
+        var expectedStderr = lines("err");
+
+        assertEquals(stdout, expectedStdout);
+        assertEquals(stderr, expectedStderr);
+
+        assertEquals(process.stdoutAsString(), String.join("\n", expectedStdout));
+        assertEquals(process.stderrAsString(), String.join("\n", expectedStderr) + "\n");
+        assertEquals(process.outputAsString().length(), process.stdoutAsString().length() + process.stderrAsString().length());
+
+        process.releaseOutput();
+    }
+
+    @Test
+    public void testLongLinesAreSplit() throws IOException, ProcessException {
+        var lines = Collections.synchronizedList(new ArrayList<String>());
+        Consumer<OutputLine> listener = l -> lines.add(l.getText());
+        var process = new AsyncProcess(
+            new ProcessBuilder("sh", "-c", "head -c 200000 /dev/zero | tr '\\0' a; echo; echo end").start(), List.of(listener));
+        process.sync(TIMEOUT);
+
+        // the line without new lines is emitted in pieces of at most 64KiB
+        assertEquals(lines.stream().map(String::length).collect(Collectors.toList()), List.of(65536, 65536, 65536, 3392, 3));
+        assertEquals(String.join("", lines.subList(0, 4)), "a".repeat(200000));
+        assertEquals(process.stdoutAsString().length(), 200000 + "\nend\n".length());
+
+        process.releaseOutput();
+    }
+
+    @Test
+    public void testAsJsonValues() throws IOException, ProcessException {
+        // the records printed by rhoas kafka topic consume --format json are pretty printed one after the other
+        String output;
+        try (var in = getClass().getResourceAsStream("rhoas-kafka-topic-consume.txt")) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        var process = new AsyncProcess(new ProcessBuilder("cat").start());
+        try (var stdin = process.stdin()) {
+            stdin.write(output);
+        }
+        process.sync(TIMEOUT);
+
+        var records = process.asJsonValues(Record.class);
+        assertEquals(records.size(), 3);
+        assertEquals(records.get(0).getOffset().longValue(), 0L);
+        assertEquals(records.get(0).getKey(), "key-0");
+        assertEquals(records.get(0).getValue(), "{\"message\": \"first\"}");
+        assertNull(records.get(1).getKey());
+        assertEquals(records.get(1).getValue(), "second\nmessage");
+        assertEquals(records.get(2).getPartition().intValue(), 0);
+        assertEquals(records.get(2).getOffset().longValue(), 2L);
+        assertEquals(records.get(2).getValue(), "");
+
+        process.releaseOutput();
+    }
+
+    private static List<String> lines(String prefix) {
+        return IntStream.range(0, LINES)
+            .mapToObj(i -> prefix + " " + i)
+            .collect(Collectors.toList());
+    }
+}
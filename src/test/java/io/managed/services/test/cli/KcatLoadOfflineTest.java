@@ -0,0 +1,143 @@
+package io.managed.services.test.cli;
+
+import io.managed.services.test.TestBase;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test the parsing of the librdkafka statistics captured from kcat runs, the throughput and latency computed from
+ * them and the pacing of the producer, without a Kafka instance.
+ */
+public class KcatLoadOfflineTest extends TestBase {
+
+    private static final double DELTA = 0.001;
+
+    private List<KcatStats> parse(String resource) throws IOException {
+        try (var in = getClass().getResourceAsStream(resource);
+             var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+
+            return reader.lines()
+                .map(KcatStats::parse)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testParseProducerStats() throws IOException {
+        var samples = parse("kcat-producer-stats.txt");
+        assertEquals(samples.size(), 3);
+
+        var first = samples.get(0);
+        assertTrue(first.isProducer());
+        assertEquals(first.getAge(), 1_000_000);
+        assertEquals(first.getMessages(), 1000);
+        assertEquals(first.getBytes(), 100_000);
+
+        // the bootstrap broker without round-trips is ignored and the max of the other brokers is taken
+        assertEquals(first.getRttP50(), 11.007, DELTA);
+        assertEquals(first.getRttP95(), 25.087, DELTA);
+        assertEquals(first.getRttP99(), 35.071, DELTA);
+
+        // the producer has no consumer lag
+        assertEquals(first.getConsumerLag(), 0);
+    }
+
+    @Test
+    public void testParseConsumerStats() throws IOException {
+        // the offsets printed by the consumer and the end of topic messages are ignored
+        var samples = parse("kcat-consumer-stats.txt");
+        assertEquals(samples.size(), 2);
+
+        var first = samples.get(0);
+        assertFalse(first.isProducer());
+        assertEquals(first.getMessages(), 1200);
+        assertEquals(first.getBytes(), 120_000);
+        assertEquals(first.getRttP50(), 5.023, DELTA);
+
+        // the lag of the internal partition and the unknown lags are ignored
+        assertEquals(first.getConsumerLag(), 800);
+        assertEquals(samples.get(1).getConsumerLag(), 0);
+    }
+
+    @Test
+    public void testParseIgnoresOtherLines() {
+        assertFalse(KcatStats.parse("42").isPresent());
+        assertFalse(KcatStats.parse("{\"value\": 1}").isPresent());
+        assertFalse(KcatStats.parse("{\"rxmsg_bytes\": ").isPresent());
+    }
+
+    @Test
+    public void testProducerReport() throws IOException {
+        var report = KcatReport.of(parse("kcat-producer-stats.txt"));
+
+        assertEquals(report.getType(), "producer");
+        assertEquals(report.getMessages(), 6000);
+        assertEquals(report.getDuration(), Duration.ofSeconds(3));
+        assertEquals(report.getMessagesPerSecond(), 2000, DELTA);
+        assertEquals(report.getBytesPerSecond(), 200_000, DELTA);
+
+        // each interval is computed from the difference with the previous sample
+        var intervals = report.getIntervals();
+        assertEquals(intervals.size(), 3);
+        assertEquals(intervals.get(0).getMessagesPerSecond(), 1000, DELTA);
+        assertEquals(intervals.get(1).getMessagesPerSecond(), 2000, DELTA);
+        assertEquals(intervals.get(2).getMessagesPerSecond(), 3000, DELTA);
+        assertEquals(intervals.get(2).getEnd(), Duration.ofSeconds(3));
+
+        // mean of the p50 and worst p95 and p99 between the intervals
+        assertEquals(report.getRttP50(), (11.007 + 12.031 + 10.047) / 3, DELTA);
+        assertEquals(report.getRttP95(), 25.087, DELTA);
+        assertEquals(report.getRttP99(), 35.071, DELTA);
+    }
+
+    @Test
+    public void testConsumerReport() throws IOException {
+        var report = KcatReport.of(parse("kcat-consumer-stats.txt"));
+
+        assertEquals(report.getType(), "consumer");
+        assertEquals(report.getMessages(), 2000);
+        assertEquals(report.getIntervals().get(0).getMessagesPerSecond(), 1200, DELTA);
+        assertEquals(report.getIntervals().get(1).getMessagesPerSecond(), 800, DELTA);
+        assertEquals(report.getIntervals().get(0).getConsumerLag(), 800);
+    }
+
+    @Test
+    public void testEmptyReport() {
+        var report = KcatReport.of(List.of());
+        assertEquals(report.getMessages(), 0);
+        assertEquals(report.getMessagesPerSecond(), 0, DELTA);
+        assertTrue(report.getIntervals().isEmpty());
+    }
+
+    @Test
+    public void testPace() throws IOException, InterruptedException {
+        var lines = IntStream.range(0, 200).mapToObj(i -> "message " + i).collect(Collectors.toList());
+        var input = String.join("\n", lines) + "\n";
+        var output = new StringWriter();
+
+        var start = System.nanoTime();
+        KcatLoad.pace(new BufferedReader(new StringReader(input)), output, 1000);
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // 200 messages at 1000 messages/s take at least 200ms, the margin covers the last pacing interval
+        assertEquals(output.toString(), input);
+        assertTrue(elapsed.toMillis() >= 150, "the messages have been sent too fast: " + elapsed);
+        assertTrue(elapsed.toMillis() < 5000, "the messages have been sent too slow: " + elapsed);
+    }
+}
@@ -0,0 +1,129 @@
+package io.managed.services.test.cli;
+
+import io.managed.services.test.TestBase;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test the ring buffer and spill file of the {@link OutputCapture} with writes and reads around the capacity.
+ */
+public class OutputCaptureOfflineTest extends TestBase {
+
+    private static final int CAPACITY = 16;
+
+    private static byte[] bytes(int from, int len) {
+        var b = new byte[len];
+        for (var i = 0; i < len; i++) {
+            b[i] = (byte) ('a' + (from + i) % 26);
+        }
+        return b;
+    }
+
+    private static byte[] readAll(OutputCapture capture) throws IOException {
+        try (var stream = capture.openStream()) {
+            return stream.readAllBytes();
+        }
+    }
+
+    @Test
+    public void testWriteSmallerThanCapacity() throws IOException {
+        try (var capture = new OutputCapture("test", CAPACITY)) {
+            capture.write(bytes(0, CAPACITY - 1));
+
+            assertEquals(capture.size(), CAPACITY - 1);
+            assertEquals(readAll(capture), bytes(0, CAPACITY - 1));
+        }
+    }
+
+    @Test
+    public void testWriteEqualToCapacity() throws IOException {
+        try (var capture = new OutputCapture("test", CAPACITY)) {
+            capture.write(bytes(0, CAPACITY));
+
+            assertEquals(capture.size(), CAPACITY);
+            assertEquals(readAll(capture), bytes(0, CAPACITY));
+
+            // the next byte spills the oldest one
+            capture.write(bytes(CAPACITY, 1));
+            assertEquals(readAll(capture), bytes(0, CAPACITY + 1));
+        }
+    }
+
+    @Test
+    public void testWriteLargerThanCapacity() throws IOException {
+        try (var capture = new OutputCapture("test", CAPACITY)) {
+            capture.write(bytes(0, 5));
+            capture.write(bytes(5, CAPACITY * 3 + 7));
+
+            assertEquals(capture.size(), CAPACITY * 3 + 12);
+            assertEquals(readAll(capture), bytes(0, CAPACITY * 3 + 12));
+        }
+    }
+
+    @Test
+    public void testWrapAroundWithRandomWrites() throws IOException {
+        var random = new Random(42);
+        var expected = new ByteArrayOutputStream();
+        try (var capture = new OutputCapture("test", CAPACITY)) {
+            for (var i = 0; i < 500; i++) {
+                var b = bytes(expected.size(), random.nextInt(CAPACITY + 5));
+                capture.write(b, 0, b.length);
+                expected.write(b, 0, b.length);
+
+                assertEquals(capture.size(), expected.size());
+            }
+            assertEquals(readAll(capture), expected.toByteArray());
+        }
+    }
+
+    @Test
+    public void testReadAcrossSpillBoundary() throws IOException {
+        try (var capture = new OutputCapture("test", CAPACITY)) {
+            // the ring is full and contains the last CAPACITY bytes, the first 10 are in the spill file
+            capture.write(bytes(0, 7));
+            capture.write(bytes(7, CAPACITY + 3));
+            var spilled = 10;
+
+            // a read starting in the spill file stops at the boundary
+            var b = new byte[8];
+            var n = capture.read(spilled - 4, b, 0, b.length);
+            assertEquals(n, 4);
+            assertEquals(b, concat(bytes(spilled - 4, 4), new byte[4]));
+
+            // and the next one continues from the ring
+            n = capture.read(spilled, b, 2, 6);
+            assertEquals(n, 6);
+            assertEquals(b, concat(bytes(spilled - 4, 2), bytes(spilled, 6)));
+
+            // a read till the end of the ring returns only the available bytes
+            n = capture.read(capture.size() - 3, b, 0, b.length);
+            assertEquals(n, 3);
+            assertEquals(capture.read(capture.size(), b, 0, b.length), -1);
+        }
+    }
+
+    @Test
+    public void testWriteAfterClose() throws IOException {
+        var capture = new OutputCapture("test", CAPACITY);
+        capture.write(bytes(0, CAPACITY * 2));
+        capture.close();
+
+        // the closed capture is empty and starts a new spill file when needed
+        assertEquals(capture.size(), 0);
+        capture.write(bytes(0, CAPACITY * 2));
+        assertEquals(readAll(capture), bytes(0, CAPACITY * 2));
+        capture.close();
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        var c = new byte[a.length + b.length];
+        System.arraycopy(a, 0, c, 0, a.length);
+        System.arraycopy(b, 0, c, a.length, b.length);
+        return c;
+    }
+}
@@ -0,0 +1,90 @@
+package io.managed.services.test.cli;
+
+import io.managed.services.test.TestBase;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test the parsing of sample outputs of kafka-producer-perf-test.sh and kafka-consumer-perf-test.sh.
+ */
+public class PerfTestReportOfflineTest extends TestBase {
+
+    private static final double DELTA = 0.0001;
+
+    private BufferedReader reader(String resource) {
+        return new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(resource), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testParseProducerOutput() {
+        var report = PerfTestReport.parseProducerOutput(reader("kafka-producer-perf-test.txt"));
+
+        // the summary line
+        assertEquals(report.getRecords(), 10000);
+        assertEquals(report.getRecordsPerSecond(), 779.423227, DELTA);
+        assertEquals(report.getMegabytesPerSecond(), 0.76, DELTA);
+        assertEquals(report.getAvgLatency(), 2566.18, DELTA);
+        assertEquals(report.getMaxLatency(), 4418, DELTA);
+        assertEquals(report.getLatencyP50(), 2578, DELTA);
+        assertEquals(report.getLatencyP95(), 4135, DELTA);
+        assertEquals(report.getLatencyP99(), 4350, DELTA);
+        assertEquals(report.getLatencyP999(), 4411, DELTA);
+
+        // the periodic lines, the warnings are ignored
+        var samples = report.getSamples();
+        assertEquals(samples.size(), 3);
+        assertEquals(samples.get(0).getElapsed(), Duration.ofSeconds(5));
+        assertEquals(samples.get(0).getRecords(), 2746);
+        assertEquals(samples.get(0).getRecordsPerSecond(), 549.1, DELTA);
+        assertEquals(samples.get(0).getMegabytesPerSecond(), 0.54, DELTA);
+        assertEquals(samples.get(0).getAvgLatency(), 1581.8, DELTA);
+        assertEquals(samples.get(0).getMaxLatency(), 2736, DELTA);
+        assertEquals(samples.get(2).getElapsed(), Duration.ofSeconds(15));
+    }
+
+    @Test
+    public void testParseProducerOutputWithoutSummary() {
+        var output = "2746 records sent, 549.1 records/sec (0.54 MB/sec), 1581.8 ms avg latency, 2736.0 ms max latency.\n";
+        assertThrows(IllegalArgumentException.class,
+            () -> PerfTestReport.parseProducerOutput(new BufferedReader(new StringReader(output))));
+    }
+
+    @Test
+    public void testParseConsumerOutput() {
+        var report = PerfTestReport.parseConsumerOutput(reader("kafka-consumer-perf-test.txt"));
+
+        // the header is ignored and the columns are cumulative
+        var samples = report.getSamples();
+        assertEquals(samples.size(), 3);
+        assertEquals(samples.get(0).getElapsed(), Duration.ZERO);
+        assertEquals(samples.get(1).getElapsed(), Duration.ofSeconds(5));
+        assertEquals(samples.get(2).getElapsed(), Duration.ofSeconds(10));
+        assertEquals(samples.get(1).getRecords(), 10000);
+        assertEquals(samples.get(1).getRecordsPerSecond(), 1000, DELTA);
+        assertEquals(samples.get(1).getMegabytesPerSecond(), 0.9537, DELTA);
+        assertTrue(Double.isNaN(samples.get(1).getAvgLatency()));
+
+        // the averages are computed between the first and the last line
+        assertEquals(report.getRecords(), 12000);
+        assertEquals(report.getRecordsPerSecond(), 700, DELTA);
+        assertEquals(report.getMegabytesPerSecond(), (11.4441 - 4.7684) / 10, DELTA);
+        assertTrue(Double.isNaN(report.getLatencyP99()));
+    }
+
+    @Test
+    public void testParseEmptyConsumerOutput() {
+        var report = PerfTestReport.parseConsumerOutput(new BufferedReader(new StringReader("")));
+        assertEquals(report.getRecords(), 0);
+        assertTrue(report.getSamples().isEmpty());
+        assertEquals(report.getRecordsPerSecond(), 0, DELTA);
+    }
+}
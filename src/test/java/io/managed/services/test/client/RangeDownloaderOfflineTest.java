@@ -0,0 +1,87 @@
+package io.managed.services.test.client;
+
+import io.managed.services.test.TestBase;
+import io.managed.services.test.retry.RetryPolicy;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test the chunked download, the fallback to a single connection and the resume of the interrupted chunks of the
+ * {@link RangeDownloader} against the {@link RangeStandIn}.
+ */
+public class RangeDownloaderOfflineTest extends TestBase {
+
+    // four chunks with a shorter last one
+    private static final int SIZE = 1000;
+    private static final int CHUNK_SIZE = 256;
+
+    private static final RetryPolicy RETRY_POLICY = RetryPolicy.builder()
+        .minInterval(Duration.ofMillis(10))
+        .initialInterval(Duration.ofMillis(10))
+        .maxInterval(Duration.ofMillis(50))
+        .build();
+
+    private byte[] content;
+    private RangeStandIn standIn;
+
+    @BeforeClass
+    public void bootstrap() {
+        content = new byte[SIZE];
+        new Random(42).nextBytes(content);
+        standIn = RangeStandIn.start(content);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void teardown() {
+        if (standIn != null) {
+            standIn.close();
+        }
+    }
+
+    private byte[] download(String path, int attempts) throws IOException {
+        var downloader = new RangeDownloader(CHUNK_SIZE, 2, attempts, RETRY_POLICY);
+        try (var in = downloader.open(standIn.getBaseUrl() + path)) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    public void testDownloadInChunks() throws IOException {
+        assertEquals(download(RangeStandIn.RANGES_PATH, 3), content);
+
+        var ranges = standIn.getRanges(RangeStandIn.RANGES_PATH);
+        ranges.sort(String::compareTo);
+        assertEquals(ranges, List.of("0-255", "256-511", "512-767", "768-999"));
+    }
+
+    @Test
+    public void testDownloadWithoutRanges() throws IOException {
+        assertEquals(download(RangeStandIn.PLAIN_PATH, 3), content);
+        assertTrue(standIn.getRanges(RangeStandIn.PLAIN_PATH).isEmpty());
+    }
+
+    @Test
+    public void testResumeDroppedChunks() throws IOException {
+        assertEquals(download(RangeStandIn.DROP_PATH, 3), content);
+
+        // each chunk is dropped after half of it and resumed from there
+        var ranges = standIn.getRanges(RangeStandIn.DROP_PATH);
+        assertEquals(ranges.size(), 8, ranges.toString());
+        assertTrue(ranges.containsAll(List.of("128-255", "384-511", "640-767", "884-999")), ranges.toString());
+    }
+
+    @Test
+    public void testFailAfterAllAttempts() {
+        assertThrows(IOException.class, () -> download(RangeStandIn.BROKEN_PATH, 2));
+    }
+}
@@ -0,0 +1,125 @@
+package io.managed.services.test.client;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import lombok.SneakyThrows;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.managed.services.test.TestUtils.bwait;
+
+/**
+ * Local file server that serves the same content with different HTTP Range behaviours, so that the
+ * {@link RangeDownloader} can be tested offline:
+ * <ul>
+ *     <li>{@link #RANGES_PATH} serves the requested ranges</li>
+ *     <li>{@link #PLAIN_PATH} ignores the ranges and always serves the whole content</li>
+ *     <li>{@link #DROP_PATH} closes the connection in the middle of the first request of each range end</li>
+ *     <li>{@link #BROKEN_PATH} closes the connection in the middle of every request</li>
+ * </ul>
+ */
+@Log4j2
+public class RangeStandIn implements AutoCloseable {
+
+    public static final String RANGES_PATH = "/ranges";
+    public static final String PLAIN_PATH = "/plain";
+    public static final String DROP_PATH = "/drop";
+    public static final String BROKEN_PATH = "/broken";
+
+    private final Vertx vertx;
+    private final HttpServer server;
+    private final byte[] content;
+
+    // the ranges requested by path in the format {from}-{to}
+    private final Map<String, List<String>> ranges = new ConcurrentHashMap<>();
+    private final Set<Integer> dropped = ConcurrentHashMap.newKeySet();
+
+    private RangeStandIn(Vertx vertx, HttpServer server, byte[] content) {
+        this.vertx = vertx;
+        this.server = server;
+        this.content = content;
+    }
+
+    @SneakyThrows
+    public static RangeStandIn start(byte[] content) {
+        var vertx = Vertx.vertx();
+        var server = vertx.createHttpServer();
+        var standIn = new RangeStandIn(vertx, server, content);
+        server.requestHandler(standIn::handle);
+        bwait(server.listen(0, "localhost"));
+        log.info("range stand-in listening at {}", standIn.getBaseUrl());
+        return standIn;
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.actualPort();
+    }
+
+    /**
+     * @return the ranges requested to the path till now in the format {from}-{to}
+     */
+    public List<String> getRanges(String path) {
+        var r = ranges.get(path);
+        if (r == null) {
+            return List.of();
+        }
+        synchronized (r) {
+            return new ArrayList<>(r);
+        }
+    }
+
+    private void handle(HttpServerRequest request) {
+        var path = request.path();
+        if (!List.of(RANGES_PATH, PLAIN_PATH, DROP_PATH, BROKEN_PATH).contains(path)) {
+            request.response().setStatusCode(404).end();
+            return;
+        }
+
+        var range = request.getHeader("Range");
+        if (PLAIN_PATH.equals(path) || range == null) {
+            request.response()
+                .putHeader("Content-Length", String.valueOf(content.length))
+                .end(Buffer.buffer(content));
+            return;
+        }
+
+        // ex: bytes=0-1023
+        var bounds = range.substring("bytes=".length()).split("-");
+        var from = Integer.parseInt(bounds[0]);
+        var to = Math.min(Integer.parseInt(bounds[1]), content.length - 1);
+        var r = ranges.computeIfAbsent(path, k -> new ArrayList<>());
+        synchronized (r) {
+            r.add(from + "-" + to);
+        }
+        log.debug("stand-in {} range: {}-{}", path, from, to);
+
+        var body = Buffer.buffer(Arrays.copyOfRange(content, from, to + 1));
+        var response = request.response()
+            .setStatusCode(206)
+            .putHeader("Content-Range", String.format("bytes %d-%d/%d", from, to, content.length))
+            .putHeader("Content-Length", String.valueOf(body.length()));
+
+        // the resumed request of a dropped range has the same end, therefore it is served
+        if (BROKEN_PATH.equals(path) || (DROP_PATH.equals(path) && dropped.add(to))) {
+            response.write(body.getBuffer(0, body.length() / 2))
+                .onComplete(__ -> request.connection().close());
+            return;
+        }
+        response.end(body);
+    }
+
+    @Override
+    @SneakyThrows
+    public void close() {
+        bwait(server.close());
+        bwait(vertx.close());
+    }
+}
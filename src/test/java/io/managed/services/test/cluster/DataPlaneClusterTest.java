@@ -270,7 +270,7 @@ public class DataPlaneClusterTest extends TestBase {
 
                     // if new some of original instances was deleted, we only wait for instance to be at least in ready state
                     // observe if any of newly crated kafka instance really is ready state (node for sure scaled), otherwise continue waiting
-                    KafkaRequest currentKafka = KafkaMgmtApiUtils.getKafkaByName(kafkaMgmtApi, DUMMY_KAFKA_INSTANCE_NAME).get();
+                    KafkaRequest currentKafka = KafkaMgmtApiUtils.getKafkaByNameUncached(kafkaMgmtApi, DUMMY_KAFKA_INSTANCE_NAME).get();
                     log.debug(currentKafka);
                     return currentKafka.getStatus().equals("ready");
                 }
@@ -0,0 +1,78 @@
+package io.managed.services.test.framework;
+
+import io.managed.services.test.TestBase;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Test the quota parsing, the demand computed from the {@link ConsumesResources} annotations and the admission of
+ * the demand within the quota of the {@link ResourceScheduler}.
+ */
+public class ResourceSchedulerOfflineTest extends TestBase {
+
+    private static final Map<String, Integer> QUOTA = Map.of(
+        "kafka-standard", 2,
+        "service-account", 3,
+        "registry", 1);
+
+    @ConsumesResources(kafkaInstances = {"standard", "standard", "developer"}, serviceAccounts = 2)
+    private static class KafkaClass {
+    }
+
+    @ConsumesResources(serviceAccounts = 5, registries = 0)
+    private static class GreedyClass {
+    }
+
+    private static class InheritingClass extends KafkaClass {
+    }
+
+    @Test
+    public void testParseQuota() {
+        assertEquals(ResourceScheduler.parseQuota(" kafka-standard = 2, ,service-account=3,registry=0,"),
+            Map.of("kafka-standard", 2, "service-account", 3, "registry", 0));
+        assertEquals(ResourceScheduler.parseQuota(""), Map.of());
+        assertEquals(ResourceScheduler.parseQuota(null), Map.of());
+    }
+
+    @Test
+    public void testParseInvalidQuota() {
+        for (var value : new String[]{"kafka-standard", "=1", "kafka-standard=two", "registry=-1", "registry=1,registry=2"}) {
+            var e = expectThrows(IllegalArgumentException.class, () -> ResourceScheduler.parseQuota(value));
+            assertTrue(e.getMessage().contains("TEST_RESOURCE_QUOTA"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDemand() {
+        // the resources without quota are not limited
+        assertEquals(ResourceScheduler.demand(KafkaClass.class, QUOTA),
+            Map.of("kafka-standard", 2, "kafka-developer", 1, "service-account", 2));
+
+        // the demand over the quota is limited to the quota and the zero demands are dropped
+        assertEquals(ResourceScheduler.demand(GreedyClass.class, QUOTA), Map.of("service-account", 3));
+
+        // the annotation is inherited
+        assertEquals(ResourceScheduler.demand(InheritingClass.class, QUOTA), ResourceScheduler.demand(KafkaClass.class, QUOTA));
+
+        assertEquals(ResourceScheduler.demand(ResourceSchedulerOfflineTest.class, QUOTA), Map.of());
+    }
+
+    @Test
+    public void testFits() {
+        var demand = Map.of("kafka-standard", 1, "service-account", 2, "kafka-developer", 10);
+
+        assertTrue(ResourceScheduler.fits(demand, QUOTA, Map.of()));
+        assertTrue(ResourceScheduler.fits(demand, QUOTA, Map.of("kafka-standard", 1, "service-account", 1)));
+        assertFalse(ResourceScheduler.fits(demand, QUOTA, Map.of("kafka-standard", 2)));
+        assertFalse(ResourceScheduler.fits(demand, QUOTA, Map.of("service-account", 2)));
+
+        // everything fits without quota
+        assertTrue(ResourceScheduler.fits(demand, Map.of(), Map.of("kafka-standard", 100)));
+    }
+}
@@ -27,6 +27,7 @@ import io.managed.services.test.client.kafkainstance.KafkaInstanceApiAccessUtils
 import io.managed.services.test.client.kafkainstance.KafkaInstanceApiUtils;
 import io.managed.services.test.client.kafkamgmt.KafkaMgmtApiUtils;
 import io.managed.services.test.client.securitymgmt.SecurityMgmtAPIUtils;
+import io.managed.services.test.framework.ConsumesResources;
 import io.managed.services.test.wait.ReadyFunction;
 import io.vertx.core.Vertx;
 import lombok.SneakyThrows;
@@ -83,6 +84,7 @@ import static org.testng.Assert.assertTrue;
  *     <li> ALIEN_OFFLINE_TOKEN
  * </ul>
  */
+@ConsumesResources(kafkaInstances = "standard", serviceAccounts = 1)
 public class KafkaAccessMgmtTest extends TestBase {
     //TODO KafkaInstanceAPITest (migrate all permission tests)
 
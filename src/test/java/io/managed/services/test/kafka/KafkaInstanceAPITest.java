@@ -22,10 +22,13 @@ import io.managed.services.test.client.kafka.KafkaProducerClient;
 import io.managed.services.test.client.kafkainstance.KafkaInstanceApi;
 import io.managed.services.test.client.kafkainstance.KafkaInstanceApiAccessUtils;
 import io.managed.services.test.client.kafkainstance.KafkaInstanceApiUtils;
+import io.managed.services.test.client.kafkamgmt.KafkaInstancePool;
+import io.managed.services.test.client.kafkamgmt.KafkaLease;
 import io.managed.services.test.client.kafkamgmt.KafkaMgmtApi;
 import io.managed.services.test.client.kafkamgmt.KafkaMgmtApiUtils;
 import io.managed.services.test.client.securitymgmt.SecurityMgmtAPIUtils;
 import io.managed.services.test.client.securitymgmt.SecurityMgmtApi;
+import io.managed.services.test.framework.ConsumesResources;
 import io.vertx.core.Vertx;
 import lombok.SneakyThrows;
 import org.apache.kafka.common.errors.RecordTooLargeException;
@@ -60,6 +63,7 @@ import static org.testng.Assert.assertTrue;
  *     <li> PRIMARY_OFFLINE_TOKEN
  * </ul>
  */
+@ConsumesResources(kafkaInstances = "standard", serviceAccounts = 1)
 public class KafkaInstanceAPITest extends TestBase {
     private static final Logger LOGGER = LogManager.getLogger(KafkaInstanceAPITest.class);
 
@@ -76,6 +80,7 @@ public class KafkaInstanceAPITest extends TestBase {
     private KafkaInstanceApi kafkaInstanceApi;
     private KafkaMgmtApi kafkaMgmtApi;
     private SecurityMgmtApi securityMgmtApi;
+    private KafkaLease kafkaLease;
     private KafkaRequest kafka;
     private KafkaConsumerClient<String, String> kafkaConsumer;
 
@@ -91,7 +96,8 @@ public class KafkaInstanceAPITest extends TestBase {
         securityMgmtApi = apps.securityMgmt();
         LOGGER.info("kafka and security mgmt api initialized");
 
-        kafka = KafkaMgmtApiUtils.applyKafkaInstance(kafkaMgmtApi, KAFKA_INSTANCE_NAME);
+        kafkaLease = KafkaInstancePool.of(Environment.PRIMARY_OFFLINE_TOKEN).lease(KAFKA_INSTANCE_NAME);
+        kafka = kafkaLease.getKafka();
 
         kafkaInstanceApi = KafkaInstanceApiUtils.kafkaInstanceApi(kafka, Environment.PRIMARY_OFFLINE_TOKEN);
         LOGGER.info("kafka instance api client initialized");
@@ -101,14 +107,17 @@ public class KafkaInstanceAPITest extends TestBase {
     public void teardown() {
         assumeTeardown();
 
-        // delete kafka instance
+        // release the kafka instance that is deleted or returned to the pool
         // TODO enterprise : clean kafka instance only if it is not enterprise testing or we don't want to skip it
-        if (!(Environment.SKIP_KAFKA_TEARDOWN || Environment.IS_ENTERPRISE)) {
-            try {
+        try {
+            if (kafkaLease != null) {
+                kafkaLease.release();
+            } else {
+                // the lease may have failed after the instance was created
                 KafkaMgmtApiUtils.cleanKafkaInstance(kafkaMgmtApi, KAFKA_INSTANCE_NAME);
-            } catch (Throwable t) {
-                LOGGER.error("failed to clean kafka instance: ", t);
             }
+        } catch (Throwable t) {
+            LOGGER.error("failed to release kafka instance: ", t);
         }
 
         // delete service account
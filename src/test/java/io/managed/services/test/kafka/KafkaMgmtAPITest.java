@@ -25,6 +25,7 @@ import io.managed.services.test.client.kafkamgmt.KafkaMgmtApiUtils;
 import io.managed.services.test.client.kafkamgmt.KafkaMgmtMetricsUtils;
 import io.managed.services.test.client.securitymgmt.SecurityMgmtAPIUtils;
 import io.managed.services.test.client.securitymgmt.SecurityMgmtApi;
+import io.managed.services.test.framework.ConsumesResources;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.kafka.client.producer.KafkaProducerRecord;
@@ -68,6 +69,7 @@ import static org.testng.Assert.assertTrue;
  * </ul>
  */
 @Log4j2
+@ConsumesResources(kafkaInstances = "standard", serviceAccounts = 2)
 public class KafkaMgmtAPITest extends TestBase {
 
     static final String SERVICE_ACCOUNT_NAME_FOR_DELETION = "mk-e2e-sa-delete"  + Environment.LAUNCH_SUFFIX;
@@ -8,6 +8,7 @@ import io.managed.services.test.client.kafkainstance.KafkaInstanceApi;
 import io.managed.services.test.client.kafkainstance.KafkaInstanceApiUtils;
 import io.managed.services.test.client.kafkamgmt.KafkaMgmtApi;
 import io.managed.services.test.client.kafkamgmt.KafkaMgmtApiUtils;
+import io.managed.services.test.framework.ConsumesResources;
 import lombok.SneakyThrows;
 import lombok.extern.log4j.Log4j2;
 import org.testng.annotations.AfterClass;
@@ -19,6 +20,7 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 
 @Log4j2
+@ConsumesResources(kafkaInstances = "standard")
 public class KafkaOverseeingTest extends TestBase {
 
     static final String KAFKA_INSTANCE_NAME = "mk-e2e-ow-" + Environment.LAUNCH_SUFFIX;
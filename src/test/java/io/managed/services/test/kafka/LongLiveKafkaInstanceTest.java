@@ -2,6 +2,7 @@ package io.managed.services.test.kafka;
 
 
 import com.openshift.cloud.api.kas.auth.models.NewTopicInput;
+import com.openshift.cloud.api.kas.auth.models.Topic;
 import com.openshift.cloud.api.kas.auth.models.TopicSettings;
 import com.openshift.cloud.api.kas.models.KafkaRequest;
 import com.openshift.cloud.api.kas.models.ServiceAccount;
@@ -20,6 +21,7 @@ import io.managed.services.test.client.kafkamgmt.KafkaMgmtApiUtils;
 import io.managed.services.test.client.kafkamgmt.KafkaMgmtMetricsUtils;
 import io.managed.services.test.client.securitymgmt.SecurityMgmtAPIUtils;
 import io.managed.services.test.client.securitymgmt.SecurityMgmtApi;
+import io.managed.services.test.framework.ConsumesResources;
 import io.vertx.core.Vertx;
 import lombok.SneakyThrows;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -29,11 +31,13 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static io.managed.services.test.TestUtils.bwait;
 import static io.managed.services.test.TestUtils.message;
@@ -54,6 +58,7 @@ import static org.testng.Assert.fail;
  *     <li> PRIMARY_OFFLINE_TOKEN
  * </ul>
  */
+@ConsumesResources(kafkaInstances = "standard", serviceAccounts = 1)
 public class LongLiveKafkaInstanceTest extends TestBase {
     private static final Logger LOGGER = LogManager.getLogger(LongLiveKafkaInstanceTest.class);
 
@@ -62,6 +67,7 @@ public class LongLiveKafkaInstanceTest extends TestBase {
     private static final String TOPIC_NAME = "test-topic";
     private static final String MULTI_PARTITION_TOPIC_NAME = "multi-partitions-topic";
     private static final String METRIC_TOPIC_NAME = "metric-test-topic";
+    private static final int TOPICS_PARALLELISM = 8;
 
     static final String TEST_CANARY_NAME = "__strimzi_canary";
     public static final String TEST_CANARY_GROUP = "canary-group";
@@ -180,17 +186,19 @@ public class LongLiveKafkaInstanceTest extends TestBase {
         final var unexpectedTopics = Objects.requireNonNull(topicList.getItems())
             .stream()
             .filter(t -> Objects.isNull(expectedTopics.remove(t.getName())))
+            .map(Topic::getName)
             .collect(Collectors.toList());
 
-        for (var topic : unexpectedTopics) {
-            LOGGER.info("delete unexpected topic '{}'", topic.getName());
-            kafkaInstanceApi.deleteTopic(topic.getName());
-        }
+        LOGGER.info("delete unexpected topics {}", unexpectedTopics);
+        var deleted = KafkaInstanceApiUtils.deleteTopics(kafkaInstanceApi, unexpectedTopics, TOPICS_PARALLELISM);
 
-        for (var topic : expectedTopics.values()) {
-            LOGGER.info("create expected topic '{}'", topic.getName());
-            kafkaInstanceApi.createTopic(topic);
-        }
+        LOGGER.info("create expected topics {}", expectedTopics.keySet());
+        var created = KafkaInstanceApiUtils.applyTopics(kafkaInstanceApi, new ArrayList<>(expectedTopics.values()), TOPICS_PARALLELISM);
+
+        var failed = Stream.concat(deleted.values().stream(), created.values().stream())
+            .filter(r -> !r.isSucceeded())
+            .collect(Collectors.toList());
+        assertTrue(failed.isEmpty(), message("failed to recreate the long live topics: {}", failed));
     }
 
 
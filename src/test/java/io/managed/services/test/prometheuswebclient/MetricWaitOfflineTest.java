@@ -0,0 +1,170 @@
+package io.managed.services.test.prometheuswebclient;
+
+import io.managed.services.test.TestBase;
+import io.managed.services.test.client.kafkamgmt.KafkaMgmtMetricsUtils;
+import lombok.extern.log4j.Log4j2;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test the metric wait logic against the {@link PrometheusStandIn} with short intervals, so that these tests
+ * don't need a Kafka instance and run in a few seconds.
+ */
+@Log4j2
+public class MetricWaitOfflineTest extends TestBase {
+
+    private static final String KAFKA_ID = "offline";
+    private static final Duration INTERVAL = Duration.ofMillis(20);
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private PrometheusStandIn standIn;
+    private PrometheusWebClient client;
+
+    @BeforeClass
+    public void bootstrap() {
+        standIn = PrometheusStandIn.start();
+        client = standIn.client();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void teardown() {
+        if (standIn != null) {
+            standIn.close();
+        }
+    }
+
+    private static PrometheusWebClient.Query query(String metric) {
+        return new PrometheusWebClient.Query()
+            .metric(metric)
+            .label("_id", KAFKA_ID)
+            .aggregateFunction("sum");
+    }
+
+    @Test
+    public void testWaitConvergesAfterLag() {
+        var query = query("lagging_bytes_total");
+        var series = ScriptedSeries.of(1000, 1100).withLag(5);
+        standIn.script(query, series);
+
+        KafkaMgmtMetricsUtils.waitUntilExpectedMetricRange(client, KAFKA_ID, query, 1000, 100, 10, INTERVAL, TIMEOUT);
+
+        // the metric converged only after the lag
+        assertEquals(series.getQueries(), 7);
+    }
+
+    @Test
+    public void testWaitConvergesAfterCounterReset() {
+        var query = query("reset_bytes_total");
+        // the counter is reset to 0 after the snapshot and then increases by the expected value
+        standIn.script(query, ScriptedSeries.of(5000, 20, 120));
+
+        KafkaMgmtMetricsUtils.waitUntilExpectedMetricRange(client, KAFKA_ID, query, 5000, 100, 10, INTERVAL, TIMEOUT);
+    }
+
+    @Test
+    public void testWaitConvergesWithSlowIncrease() {
+        var query = query("slow_bytes_total");
+        standIn.script(query, ScriptedSeries.counter(0, 10, 20));
+
+        KafkaMgmtMetricsUtils.waitUntilExpectedMetricRange(client, KAFKA_ID, query, 0, 200, 5, INTERVAL, TIMEOUT);
+    }
+
+    @Test
+    public void testWaitTimesOutWhenTheMetricOvershoots() {
+        var query = query("overshooting_bytes_total");
+        standIn.script(query, ScriptedSeries.of(0, 1000));
+
+        assertThrows(PrometheusException.class, () -> KafkaMgmtMetricsUtils.waitUntilExpectedMetricRange(
+            client, KAFKA_ID, query, 0, 100, 10, INTERVAL, Duration.ofMillis(300)));
+    }
+
+    @Test
+    public void testWaitTimesOutWhenTheMetricIsMissing() {
+        var query = query("missing_bytes_total");
+
+        assertThrows(PrometheusException.class, () -> KafkaMgmtMetricsUtils.waitUntilExpectedMetricRange(
+            client, KAFKA_ID, query, 0, 100, 10, INTERVAL, Duration.ofMillis(300)));
+    }
+
+    @Test
+    public void testWatcherConvergesAllMetrics() throws Exception {
+        var storage = query("watch_storage_bytes");
+        var in = query("watch_in_bytes_total");
+        var out = query("watch_out_bytes_total");
+        standIn.script(storage, ScriptedSeries.of(100, 400).withLag(3));
+        standIn.script(in, ScriptedSeries.counter(0, 50, 2));
+        standIn.script(out, ScriptedSeries.of(1000, 0, 300));
+
+        var watcher = new MetricRangeWatcher(client)
+            .expect("storage", storage, 100, 300, 5)
+            .expect("in", in, 0, 100, 5)
+            .expect("out", out, 1000, 300, 5);
+        watcher.waitAll(INTERVAL, TIMEOUT);
+
+        // converged metrics are not queried anymore
+        assertEquals(standIn.getQueries(in), 3);
+        assertEquals(standIn.getQueries(storage), 5);
+    }
+
+    @Test
+    public void testWatcherStopsAtTheFirstDivergence() throws Exception {
+        var slow = query("watch_slow_bytes_total");
+        var overshooting = query("watch_overshooting_bytes_total");
+        standIn.script(slow, ScriptedSeries.counter(0, 1, 1000));
+        standIn.script(overshooting, ScriptedSeries.of(0, 0, 1000));
+
+        var ranges = new MetricRangeWatcher(client)
+            .expect("slow", slow, 0, 1000, 5)
+            .expect("overshooting", overshooting, 0, 100, 5)
+            .watch(INTERVAL, TIMEOUT);
+
+        assertEquals(ranges.get("overshooting").getStatus(), ExpectedMetricRange.Status.DIVERGED);
+        assertEquals(ranges.get("slow").getStatus(), ExpectedMetricRange.Status.PENDING);
+        assertEquals(standIn.getQueries(slow), 3);
+    }
+
+    @Test
+    public void testQueryAllPreservesTheOrder() throws PrometheusException {
+        var queries = List.of(query("first"), query("second"), query("third"));
+        for (var i = 0; i < queries.size(); i++) {
+            standIn.script(queries.get(i), ScriptedSeries.of(i));
+        }
+
+        var results = client.queryAll(queries);
+
+        assertEquals(results.size(), 3);
+        for (var i = 0; i < results.size(); i++) {
+            assertEquals(results.get(i).data.result.get(0).doubleValue(), (double) i);
+        }
+    }
+
+    @Test
+    public void testQueryRangeReturnsTypedSeries() throws PrometheusException {
+        var query = query("range_bytes_total");
+        standIn.script(query, ScriptedSeries.counter(0, 10, 4).withLabels(Map.of("topic", "t1")));
+
+        var end = Instant.now();
+        var result = client.queryRange(query.toString(), end.minusSeconds(40), end, Duration.ofSeconds(10));
+
+        var series = result.series();
+        assertEquals(series.size(), 1);
+        assertEquals(series.get(0).getLabels(), Map.of("topic", "t1"));
+        assertEquals(series.get(0).getSamples().size(), 5);
+        assertEquals(series.get(0).lastValue(), 40.0);
+
+        var samples = series.get(0).getSamples();
+        for (var i = 1; i < samples.size(); i++) {
+            assertTrue(samples.get(i).getTime().isAfter(samples.get(i - 1).getTime()));
+        }
+    }
+}
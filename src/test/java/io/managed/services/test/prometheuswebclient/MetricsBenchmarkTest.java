@@ -0,0 +1,135 @@
+package io.managed.services.test.prometheuswebclient;
+
+import io.managed.services.test.TestBase;
+import io.managed.services.test.client.kafkamgmt.KafkaMgmtMetricsUtils;
+import io.managed.services.test.metrics.MetricsDelta;
+import io.managed.services.test.metrics.MetricsSnapshot;
+import io.managed.services.test.metrics.PrometheusTextParser;
+import lombok.extern.log4j.Log4j2;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Rough throughput figures for the snapshot and wait logic, the results are logged so that regressions can be
+ * spotted by comparing the output of different runs and the assertions only verify the correctness.
+ */
+@Log4j2
+public class MetricsBenchmarkTest extends TestBase {
+
+    private static final int TOPICS = 1000;
+    private static final int PARTITIONS = 10;
+    private static final int ITERATIONS = 20;
+
+    private static String federatedText(int offset) {
+        var text = new StringBuilder();
+        text.append("# TYPE kafka_topic_bytes_in_total counter\n");
+        for (var t = 0; t < TOPICS; t++) {
+            for (var p = 0; p < PARTITIONS; p++) {
+                text.append(String.format("kafka_topic_bytes_in_total{topic=\"topic-%d\",partition=\"%d\"} %d\n",
+                    t, p, t * PARTITIONS + p + offset));
+            }
+        }
+        return text.toString();
+    }
+
+    private static void report(String operation, int series, long nanos) {
+        var millis = nanos / 1_000_000.0 / ITERATIONS;
+        log.info("{}: {} series in {} ms ({} series/s)",
+            operation, series, String.format("%.2f", millis), String.format("%.0f", series / millis * 1000));
+    }
+
+    @Test
+    public void benchmarkParse() {
+        var text = federatedText(0);
+
+        // warm up
+        var snapshot = PrometheusTextParser.parse(text);
+
+        var start = System.nanoTime();
+        for (var i = 0; i < ITERATIONS; i++) {
+            snapshot = PrometheusTextParser.parse(text);
+        }
+        report("parse", snapshot.size(), System.nanoTime() - start);
+
+        assertEquals(snapshot.size(), TOPICS * PARTITIONS);
+        assertEquals(snapshot.value("kafka_topic_bytes_in_total", Map.of("topic", "topic-1", "partition", "2")).orElseThrow(), 12.0);
+    }
+
+    @Test
+    public void benchmarkDelta() {
+        var previous = PrometheusTextParser.parse(federatedText(0));
+        var current = PrometheusTextParser.parse(federatedText(1));
+
+        var delta = MetricsDelta.between(previous, current);
+
+        var start = System.nanoTime();
+        for (var i = 0; i < ITERATIONS; i++) {
+            delta = MetricsDelta.between(previous, current);
+        }
+        report("delta", current.size(), System.nanoTime() - start);
+
+        assertEquals(delta.getChanges().size(), TOPICS * PARTITIONS);
+    }
+
+    @Test
+    public void benchmarkCollectTopicMetric() {
+        var snapshot = PrometheusTextParser.parse(federatedText(0));
+
+        var start = System.nanoTime();
+        var total = 0.0;
+        for (var i = 0; i < ITERATIONS; i++) {
+            total = KafkaMgmtMetricsUtils.collectTopicMetric(snapshot, "topic-0", "kafka_topic_bytes_in_total");
+        }
+        report("collect topic metric", snapshot.size(), System.nanoTime() - start);
+
+        // sum of 0..9
+        assertEquals(total, 45.0);
+    }
+
+    @Test
+    public void benchmarkWaitUntilExpectedMetricRange() {
+        try (var standIn = PrometheusStandIn.start()) {
+            var client = standIn.client();
+
+            var queries = new ArrayList<PrometheusWebClient.Query>();
+            for (var i = 0; i < ITERATIONS; i++) {
+                var query = new PrometheusWebClient.Query().metric("benchmark_" + i).label("_id", "benchmark");
+                standIn.script(query, ScriptedSeries.counter(0, 10, 10));
+                queries.add(query);
+            }
+
+            var start = System.nanoTime();
+            for (var query : queries) {
+                KafkaMgmtMetricsUtils.waitUntilExpectedMetricRange(
+                    client, "benchmark", query, 0, 100, 1, Duration.ZERO, Duration.ofSeconds(10));
+            }
+            var nanos = System.nanoTime() - start;
+
+            report("wait until expected metric range", 11, nanos);
+            log.info("wait until expected metric range: {} requests", standIn.getRequests());
+
+            assertEquals(standIn.getRequests(), ITERATIONS * 11);
+        }
+    }
+
+    @Test
+    public void benchmarkSnapshotBuilder() {
+        MetricsSnapshot snapshot = null;
+        var start = System.nanoTime();
+        for (var i = 0; i < ITERATIONS; i++) {
+            var builder = MetricsSnapshot.builder();
+            for (var t = 0; t < TOPICS * PARTITIONS; t++) {
+                builder.add("kafka_topic_bytes_in_total", Map.of("topic", "topic-" + t), t);
+            }
+            snapshot = builder.build();
+        }
+        report("snapshot builder", TOPICS * PARTITIONS, System.nanoTime() - start);
+
+        assertEquals(snapshot.size(), TOPICS * PARTITIONS);
+    }
+}
@@ -0,0 +1,145 @@
+package io.managed.services.test.prometheuswebclient;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import lombok.SneakyThrows;
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.managed.services.test.TestUtils.bwait;
+
+/**
+ * Local stand-in for Prometheus and Observatorium that serves /api/v1/query and /api/v1/query_range
+ * from {@link ScriptedSeries} registered by query, so that the metric waits can be tested offline.
+ * <p>
+ * Unknown queries return an empty result like Prometheus does for metrics that don't exist yet.
+ */
+@Log4j2
+public class PrometheusStandIn implements AutoCloseable {
+
+    public static final String QUERY_PATH = "/api/v1/query";
+
+    private final Vertx vertx;
+    private final HttpServer server;
+    private final Map<String, ScriptedSeries> series = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private PrometheusStandIn(Vertx vertx, HttpServer server) {
+        this.vertx = vertx;
+        this.server = server;
+    }
+
+    @SneakyThrows
+    public static PrometheusStandIn start() {
+        var vertx = Vertx.vertx();
+        var server = vertx.createHttpServer();
+        var standIn = new PrometheusStandIn(vertx, server);
+        server.requestHandler(standIn::handle);
+        bwait(server.listen(0, "localhost"));
+        log.info("prometheus stand-in listening at {}", standIn.getBaseUrl());
+        return standIn;
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.actualPort();
+    }
+
+    public PrometheusWebClient client() {
+        return new PrometheusWebClientBuilder()
+            .withBaseUrl(getBaseUrl())
+            .withUrlResourcePath(QUERY_PATH)
+            .build();
+    }
+
+    public PrometheusStandIn script(PrometheusWebClient.Query query, ScriptedSeries s) {
+        return script(query.toString(), s);
+    }
+
+    public PrometheusStandIn script(String query, ScriptedSeries s) {
+        series.put(query, s);
+        return this;
+    }
+
+    /**
+     * @return the number of requests served since the start
+     */
+    public int getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return the number of instant queries served for the query
+     */
+    public int getQueries(PrometheusWebClient.Query query) {
+        var s = series.get(query.toString());
+        return s == null ? 0 : s.getQueries();
+    }
+
+    private void handle(HttpServerRequest request) {
+        requests.incrementAndGet();
+
+        var query = request.getParam("query");
+        var s = query == null ? null : series.get(query);
+        log.debug("stand-in {} query: {}", request.path(), query);
+
+        JsonObject data;
+        if (QUERY_PATH.equals(request.path())) {
+            data = vector(s);
+        } else if ((QUERY_PATH + "_range").equals(request.path())) {
+            data = matrix(s,
+                Long.parseLong(request.getParam("start")),
+                Long.parseLong(request.getParam("end")),
+                Long.parseLong(request.getParam("step").replace("s", "")));
+        } else {
+            request.response().setStatusCode(404).end();
+            return;
+        }
+
+        var body = new JsonObject()
+            .put("status", "success")
+            .put("data", data);
+        request.response()
+            .putHeader("Content-Type", "application/json")
+            .end(body.encode());
+    }
+
+    private static JsonObject vector(ScriptedSeries s) {
+        var result = new JsonArray();
+        if (s != null) {
+            var now = Instant.now().toEpochMilli() / 1000.0;
+            result.add(new JsonObject()
+                .put("metric", new JsonObject(Map.copyOf(s.getLabels())))
+                .put("value", new JsonArray().add(now).add(String.valueOf(s.next()))));
+        }
+        return new JsonObject().put("resultType", "vector").put("result", result);
+    }
+
+    private static JsonObject matrix(ScriptedSeries s, long start, long end, long step) {
+        var result = new JsonArray();
+        if (s != null) {
+            var values = new JsonArray();
+            var i = 0;
+            for (var t = start; t <= end; t += step) {
+                values.add(new JsonArray().add(t).add(String.valueOf(s.valueAt(i++))));
+            }
+            result.add(new JsonObject()
+                .put("metric", new JsonObject(Map.copyOf(s.getLabels())))
+                .put("values", values));
+        }
+        return new JsonObject().put("resultType", "matrix").put("result", result);
+    }
+
+    @Override
+    @SneakyThrows
+    public void close() {
+        bwait(server.close());
+        bwait(vertx.close());
+    }
+}
@@ -0,0 +1,82 @@
+package io.managed.services.test.prometheuswebclient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time series served by the {@link PrometheusStandIn} where each instant query returns the next scripted value
+ * and the last value is repeated once the script is finished.
+ */
+public class ScriptedSeries {
+
+    private final List<Double> values;
+    private final Map<String, String> labels;
+    private final int lag;
+
+    private int cursor = 0;
+
+    private ScriptedSeries(List<Double> values, Map<String, String> labels, int lag) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("a series needs at least one value");
+        }
+        this.values = values;
+        this.labels = labels;
+        this.lag = lag;
+    }
+
+    public static ScriptedSeries of(double... values) {
+        var list = new ArrayList<Double>();
+        for (var v : values) {
+            list.add(v);
+        }
+        return new ScriptedSeries(list, Map.of(), 0);
+    }
+
+    /**
+     * A counter that grows from start by increment at each query for the given number of steps
+     */
+    public static ScriptedSeries counter(double start, double increment, int steps) {
+        var values = new double[steps + 1];
+        for (var i = 0; i <= steps; i++) {
+            values[i] = start + increment * i;
+        }
+        return of(values);
+    }
+
+    /**
+     * Repeat the first value for the given number of queries before starting the script, like a metric
+     * that is scraped and federated with some delay.
+     */
+    public ScriptedSeries withLag(int queries) {
+        return new ScriptedSeries(values, labels, queries);
+    }
+
+    public ScriptedSeries withLabels(Map<String, String> labels) {
+        return new ScriptedSeries(values, labels, lag);
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    /**
+     * @return the value for the next instant query
+     */
+    public synchronized double next() {
+        var i = Math.max(0, cursor - lag);
+        cursor++;
+        return valueAt(i);
+    }
+
+    /**
+     * @return the value at the given step of the script without moving the cursor
+     */
+    public double valueAt(int step) {
+        return values.get(Math.min(step, values.size() - 1));
+    }
+
+    public synchronized int getQueries() {
+        return cursor;
+    }
+}
@@ -17,12 +17,15 @@ import io.managed.services.test.client.kafka.KafkaConsumerClient;
 import io.managed.services.test.client.kafka.KafkaProducerClient;
 import io.managed.services.test.client.kafkainstance.KafkaInstanceApiAccessUtils;
 import io.managed.services.test.client.kafkainstance.KafkaInstanceApiUtils;
+import io.managed.services.test.client.kafkamgmt.KafkaInstancePool;
+import io.managed.services.test.client.kafkamgmt.KafkaLease;
 import io.managed.services.test.client.kafkamgmt.KafkaMgmtApi;
 import io.managed.services.test.client.kafkamgmt.KafkaMgmtApiUtils;
 import io.managed.services.test.client.registrymgmt.RegistryMgmtApi;
 import io.managed.services.test.client.registrymgmt.RegistryMgmtApiUtils;
 import io.managed.services.test.client.securitymgmt.SecurityMgmtAPIUtils;
 import io.managed.services.test.client.securitymgmt.SecurityMgmtApi;
+import io.managed.services.test.framework.ConsumesResources;
 import io.vertx.core.Vertx;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
@@ -55,6 +58,7 @@ import static org.testng.Assert.assertNotNull;
  *     <li> PRIMARY_OFFLINE_TOKEN
  * </ul>
  */
+@ConsumesResources(kafkaInstances = "standard", serviceAccounts = 1, registries = 1)
 public class RegistryKafkaIntegrationTest extends TestBase {
     private static final Logger LOGGER = LogManager.getLogger(RegistryKafkaIntegrationTest.class);
 
@@ -70,6 +74,7 @@ public class RegistryKafkaIntegrationTest extends TestBase {
     private RootTypeForRegistry registry;
     private KafkaMgmtApi kafkaMgmtApi;
     private SecurityMgmtApi securityMgmtApi;
+    private KafkaLease kafkaLease;
     private KafkaRequest kafka;
     private ServiceAccount serviceAccount;
     private KafkaProducerClient<String, GenericRecord> producer;
@@ -94,7 +99,8 @@ public class RegistryKafkaIntegrationTest extends TestBase {
 
         // kafka
         LOGGER.info("create kafka instance: {}", KAFKA_INSTANCE_NAME);
-        kafka = KafkaMgmtApiUtils.applyKafkaInstance(kafkaMgmtApi, KAFKA_INSTANCE_NAME);
+        kafkaLease = KafkaInstancePool.of(offlineToken).lease(KAFKA_INSTANCE_NAME);
+        kafka = kafkaLease.getKafka();
         LOGGER.debug(kafka);
 
         // service account
@@ -128,9 +134,14 @@ public class RegistryKafkaIntegrationTest extends TestBase {
         assumeTeardown();
 
         try {
-            KafkaMgmtApiUtils.cleanKafkaInstance(kafkaMgmtApi, KAFKA_INSTANCE_NAME);
+            if (kafkaLease != null) {
+                kafkaLease.release();
+            } else {
+                // the lease may have failed after the instance was created
+                KafkaMgmtApiUtils.cleanKafkaInstance(kafkaMgmtApi, KAFKA_INSTANCE_NAME);
+            }
         } catch (Throwable t) {
-            LOGGER.error("clan kafka error: ", t);
+            LOGGER.error("release kafka error: ", t);
         }
 
         try {
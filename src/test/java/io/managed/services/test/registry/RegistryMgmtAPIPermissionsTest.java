@@ -11,6 +11,7 @@ import io.managed.services.test.client.exception.ApiNotFoundException;
 import io.managed.services.test.client.registry.RegistryClient;
 import io.managed.services.test.client.registrymgmt.RegistryMgmtApi;
 import io.managed.services.test.client.registrymgmt.RegistryMgmtApiUtils;
+import io.managed.services.test.framework.ConsumesResources;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
 import org.apache.logging.log4j.LogManager;
@@ -38,6 +39,7 @@ import static org.testng.Assert.assertThrows;
  *     <li> ADMIN_OFFLINE_TOKEN
  * </ul>
  */
+@ConsumesResources(registries = 1)
 public class RegistryMgmtAPIPermissionsTest extends TestBase {
     private static final Logger LOGGER = LogManager.getLogger(RegistryMgmtAPIPermissionsTest.class);
 
@@ -8,6 +8,7 @@ import io.managed.services.test.TestBase;
 import io.managed.services.test.client.exception.ApiGenericException;
 import io.managed.services.test.client.registrymgmt.RegistryMgmtApi;
 import io.managed.services.test.client.registrymgmt.RegistryMgmtApiUtils;
+import io.managed.services.test.framework.ConsumesResources;
 import io.vertx.core.json.Json;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -34,6 +35,7 @@ import static org.testng.Assert.assertTrue;
  *     <li> PRIMARY_OFFLINE_TOKEN
  * </ul>
  */
+@ConsumesResources(registries = 2)
 public class RegistryMgmtAPITest extends TestBase {
     private static final Logger LOGGER = LogManager.getLogger(RegistryMgmtAPITest.class);
 
@@ -13,6 +13,7 @@ import io.managed.services.test.cli.CLIUtils;
 import io.managed.services.test.cli.CLI.ACLEntityType;
 import io.managed.services.test.client.kafkamgmt.KafkaMgmtApiUtils;
 import io.managed.services.test.client.securitymgmt.SecurityMgmtAPIUtils;
+import io.managed.services.test.framework.ConsumesResources;
 import io.vertx.core.Vertx;
 import lombok.SneakyThrows;
 import org.apache.commons.io.FileUtils;
@@ -50,6 +51,7 @@ import static org.testng.Assert.assertTrue;
  * </ul>
  */
 @Test
+@ConsumesResources(kafkaInstances = "standard")
 public class KafkaRhoasAclTests extends TestBase {
 
     private static final Logger LOGGER = LogManager.getLogger(KafkaRhoasAclTests.class);
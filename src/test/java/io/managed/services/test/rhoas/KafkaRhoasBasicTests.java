@@ -15,6 +15,7 @@ import io.managed.services.test.cli.ServiceAccountSecret;
 import io.managed.services.test.client.kafkainstance.KafkaInstanceApiUtils;
 import io.managed.services.test.client.kafkamgmt.KafkaMgmtApiUtils;
 import io.managed.services.test.client.securitymgmt.SecurityMgmtAPIUtils;
+import io.managed.services.test.framework.ConsumesResources;
 import io.vertx.core.Vertx;
 import lombok.SneakyThrows;
 import org.apache.commons.io.FileUtils;
@@ -60,6 +61,7 @@ import static org.testng.Assert.assertFalse;
  * </ul>
  */
 @Test
+@ConsumesResources(kafkaInstances = "standard", serviceAccounts = 1)
 public class KafkaRhoasBasicTests extends TestBase {
     private static final Logger LOGGER = LogManager.getLogger(KafkaRhoasBasicTests.class);
 
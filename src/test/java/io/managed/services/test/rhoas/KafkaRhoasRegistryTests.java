@@ -6,6 +6,7 @@ import io.managed.services.test.cli.CLI;
 import io.managed.services.test.cli.CLIDownloader;
 import io.managed.services.test.cli.CLIUtils;
 import io.managed.services.test.client.registrymgmt.RegistryMgmtApiUtils;
+import io.managed.services.test.framework.ConsumesResources;
 import io.vertx.core.Vertx;
 import lombok.SneakyThrows;
 import org.apache.commons.io.FileUtils;
@@ -36,6 +37,7 @@ import static org.testng.Assert.assertTrue;
  * </ul>
  */
 @Test
+@ConsumesResources(registries = 1)
 public class KafkaRhoasRegistryTests {
     private static final Logger LOGGER = LogManager.getLogger(KafkaRhoasRegistryTests.class);
 